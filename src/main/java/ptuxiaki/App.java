@@ -3,6 +3,9 @@ package ptuxiaki;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ptuxiaki.datastructures.Conf;
+import ptuxiaki.metrics.Metrics;
+import ptuxiaki.metrics.MetricsReporter;
+import ptuxiaki.utils.Trace;
 
 import java.io.IOException;
 import java.nio.file.Paths;
@@ -13,12 +16,12 @@ public class App {
     private static Conf conf;
 
     public static void main(String[] args) throws IOException {
-        String dir = null, props = null;
+        String dir = null, props = null, metrics = null;
         // Initialize program's properties to default values.
         double wsl = 1.0, wst = 1.0, wtt = 1.0;
-        int minWords = 4, compress = 80;
-        String sw = "idf", pw = "nar", stemmer = "lucene";
-        boolean showTitles = true;
+        int minWords = 4, compress = 80, threads = 1, port = -1;
+        String sw = "idf", pw = "nar", stemmer = "lucene", output = "dir";
+        boolean showTitles = true, trace = false;
 
         // Parse cli args. Take care to validate the values as well as the options passed to the program.
         // Terminate with exit code 2 for wrong option (i.e '-wtl 0.4' instead of '-wtt 0.4' )
@@ -58,9 +61,24 @@ public class App {
                     case "-showTitles":
                         showTitles = Boolean.parseBoolean(args[++i]);
                         break;
+                    case "-threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "-serve":
+                        port = Integer.parseInt(args[++i]);
+                        break;
                     case "-dir":
                         dir = args[++i];
                         break;
+                    case "-output":
+                        output = args[++i];
+                        break;
+                    case "-trace":
+                        trace = true;
+                        break;
+                    case "-metrics":
+                        metrics = args[++i];
+                        break;
                     case "-props":
                         props = args[++i];
                         break;
@@ -95,9 +113,27 @@ public class App {
             System.exit(2);
         }
 
+        if (threads < 1) {
+            System.out.println("Invalid value " + threads + " for option -threads");
+            System.out.println("Try 'summarizer -h' for more information");
+            System.exit(2);
+        }
+
+        if (port != -1 && (port < 0 || port > 65535)) {
+            System.out.println("Invalid value " + port + " for option -serve");
+            System.out.println("Try 'summarizer -h' for more information");
+            System.exit(2);
+        }
+
+        if (!output.equals("dir") && !output.equals("jsonl") && !output.equals("zip")) {
+            System.out.println("Invalid value " + output + " for option -output");
+            System.out.println("Try 'summarizer -h' for more information");
+            System.exit(2);
+        }
+
         // End args parsing section
 
-        if (dir == null) {
+        if (dir == null && port == -1) {
             System.out.println("You must pass a directory with the files you need to summarize");
             System.out.println("use: directory /path/to/dir");
             System.exit(0);
@@ -114,22 +150,83 @@ public class App {
             p.put("pw", pw);
             p.put("stemmer", stemmer);
             p.put("showTitles", String.valueOf(showTitles));
+            p.put("threads", String.valueOf(threads));
+            p.put("output", output);
+            if (metrics != null) {
+                p.put("metricsReport", metrics);
+            }
             conf = Conf.instance(p);
         } else {
             conf = Conf.instance(props);
         }
 
-        Summarizer summarizer = new Summarizer();
-
         LOG.info(String.format("Running with properties: %s", conf));
         LOG.debug(String.format("Running with properties: %s", conf));
 
-        summarizer.summarizeDirectory(Paths.get(dir));
+        if (conf.metrics()) {
+            Metrics.enable();
+        }
+        if (trace) {
+            Trace.enable();
+        }
+
+        if (port != -1) {
+            serve(dir, port);
+            return;
+        }
+
+        final MetricsReporter reporter = reporter();
+        try (Summarizer summarizer = new Summarizer()) {
+            summarizer.summarizeDirectory(Paths.get(dir));
+        } finally {
+            // the last report, once the summarizer is closed
+            if (reporter != null) {
+                reporter.close();
+            }
+        }
 
         LOG.info("-------------------------------------End of run------------------------------------------%n");
         LOG.debug("-------------------------------------End of run------------------------------------------%n");
     }
 
+    /**
+     * Run as a daemon that keeps the index open and serves summaries until the process is terminated.
+     * @param dir indexed before the server starts, may be null
+     * @param port the port to listen to on the loopback interface
+     * @throws IOException
+     */
+    private static void serve(final String dir, final int port) throws IOException {
+        final Summarizer summarizer = new Summarizer();
+        if (dir != null && !summarizer.indexDirectory(Paths.get(dir))) {
+            System.out.println("Empty directory " + dir);
+        }
+        final SummaryServer server = new SummaryServer(summarizer, port, conf.threads());
+        final MetricsReporter reporter = reporter();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            if (reporter != null) {
+                reporter.close();
+            }
+            try {
+                summarizer.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }));
+        server.start();
+        System.out.println("Listening on http://" + server.address().getHostString() + ":" + server.address().getPort());
+    }
+
+    /**
+     * @return a reporter writing to {@link Conf#metricsReport()}, or null if there is no report file
+     */
+    private static MetricsReporter reporter() {
+        final String report = conf.metricsReport();
+        if (report == null || !conf.metrics()) {
+            return null;
+        }
+        return new MetricsReporter(Paths.get(report), conf.metricsInterval());
+    }
 
     public static void usage() {
         System.out.println("Usage: summarizer [<flags>] <directory> [<property-file>]");
@@ -147,6 +244,11 @@ public class App {
         System.out.println("\t-pw ['nar', 'bax']  paragraph weight function");
         System.out.println("\t-stemmer ['lucene', 'nnk'] stemmer to use");
         System.out.println("\t-showTitles [true, false]  whether to show the titles in the summary or not");
+        System.out.println("\t-threads [1..n]  number of documents to index and summarize in parallel");
+        System.out.println("\t-output ['dir', 'jsonl', 'zip']  a summary file per document, or every summary in a single zip file or json lines file with the weights of every sentence");
+        System.out.println("\t-serve [0..65535]  keep the index open and serve summaries over http on this port");
+        System.out.println("\t-trace  write the weights of every sentence and word to log/trace.log");
+        System.out.println("\t-metrics <file>  time and count every stage and append the metrics to file, as csv if it ends in .csv or as json lines");
         System.out.println();
     }
 }
@@ -0,0 +1,108 @@
+package ptuxiaki;
+
+import ptuxiaki.datastructures.Sentence;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * <p>Writes every summary of a run to a single file instead of a file per document.
+ *
+ * <p>The summaries are written through a buffer to a temporary file next to the archive, which is moved
+ * into place when the sink is closed. The archive is either complete or not there at all, and an archive
+ * of a previous run is replaced only once the new one is written.
+ */
+public abstract class ArchiveSummarySink implements SummarySink {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path file;
+    private final Path tmp;
+    private boolean closed;
+
+    /**
+     * @param file the archive, its directory is created if it does not exist
+     * @throws IOException if the temporary file can't be created
+     */
+    protected ArchiveSummarySink(final Path file) throws IOException {
+        final Path dir = Files.createDirectories(file.toAbsolutePath().getParent());
+        this.file = file;
+        this.tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+    }
+
+    /**
+     * @return a buffered stream to the temporary file, closed along with the sink
+     * @throws IOException
+     */
+    protected OutputStream open() throws IOException {
+        return new BufferedOutputStream(Files.newOutputStream(tmp), BUFFER_SIZE);
+    }
+
+    /**
+     * Append a summary to the archive. Calls are serialized by the sink.
+     * @param summaryName
+     * @param summary
+     * @throws IOException
+     */
+    protected abstract void write(String summaryName, List<Sentence> summary) throws IOException;
+
+    /**
+     * Write what is left of the archive and close the stream returned by {@link ArchiveSummarySink#open()}.
+     * @throws IOException
+     */
+    protected abstract void finish() throws IOException;
+
+    @Override
+    public synchronized void accept(final String summaryName, final List<Sentence> summary) throws IOException {
+        if (closed) {
+            throw new IOException("Archive " + file + " is closed");
+        }
+        write(summaryName, summary);
+    }
+
+    /**
+     * Finish the archive and move it into place.
+     * @throws IOException
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            finish();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Delete the temporary file without moving it into place, the archive of a previous run is kept.
+     * @throws IOException
+     */
+    @Override
+    public synchronized void abort() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            finish();
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * @return the archive the summaries are written to
+     */
+    public Path file() {
+        return file;
+    }
+}
@@ -0,0 +1,193 @@
+package ptuxiaki;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ptuxiaki.datastructures.Sentence;
+import ptuxiaki.metrics.Counter;
+import ptuxiaki.metrics.Metrics;
+import ptuxiaki.metrics.Timer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * <p>Hands the summaries over to a background thread that writes them to another sink,
+ * so that the summarizing threads don't wait for the disk.
+ *
+ * <p>The summaries are queued in the order they are accepted, and the writer takes every summary
+ * that is queued at once and writes it as a batch. The queue is bounded: if the disk can't keep up
+ * the summarizing threads wait for room in the queue instead of holding every summary in memory.
+ *
+ * <p>A summary that can't be written is logged and skipped, like the documents that can't be summarized.
+ * The ones that are written are reported, by name, to a listener on the writer thread.
+ */
+public class AsyncSummarySink implements SummarySink {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncSummarySink.class);
+
+    private static final Timer BATCH = Metrics.timer("output.batch");
+    private static final Counter SUMMARIES = Metrics.counter("output.summaries");
+    private static final Counter FAILED = Metrics.counter("output.failed");
+
+    private static final Pending END = new Pending(null, null);
+
+    private final SummarySink sink;
+    private final Consumer<String> written;
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private static final class Pending {
+        final String summaryName;
+        final List<Sentence> summary;
+
+        Pending(final String summaryName, final List<Sentence> summary) {
+            this.summaryName = summaryName;
+            this.summary = summary;
+        }
+    }
+
+    /**
+     * @param sink where the summaries are written, it is closed along with this sink
+     * @param capacity the maximum number of summaries waiting to be written
+     */
+    public AsyncSummarySink(final SummarySink sink, final int capacity) {
+        this(sink, capacity, name -> { });
+    }
+
+    /**
+     * @param sink where the summaries are written, it is closed along with this sink
+     * @param capacity the maximum number of summaries waiting to be written
+     * @param written called with the name of every summary once {@code sink} has accepted it
+     */
+    public AsyncSummarySink(final SummarySink sink, final int capacity, final Consumer<String> written) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.sink = sink;
+        this.written = written;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = capacity;
+        this.writer = new Thread(this::drain, "summary-writer");
+        this.writer.start();
+        Metrics.gauge("output.queue", queue::size);
+    }
+
+    /**
+     * Queue the summary to be written, waiting only while the queue is full.
+     * @param summaryName
+     * @param summary
+     * @throws IOException if the sink is closed or the thread is interrupted while waiting
+     */
+    @Override
+    public void accept(final String summaryName, final List<Sentence> summary) throws IOException {
+        if (closed) {
+            throw new IOException("Summary sink is closed");
+        }
+        try {
+            queue.put(new Pending(summaryName, summary));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while queueing " + summaryName);
+        }
+    }
+
+    private void drain() {
+        final List<Pending> batch = new ArrayList<>(batchSize);
+        boolean end = false;
+        while (!end) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                // only close() stops the writer, once everything queued is written
+                continue;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            final long start = BATCH.start();
+            for (Pending p : batch) {
+                if (p == END) {
+                    end = true;
+                    break;
+                }
+                write(p);
+            }
+            BATCH.stop(start);
+            batch.clear();
+        }
+    }
+
+    private void write(final Pending p) {
+        try {
+            sink.accept(p.summaryName, p.summary);
+            SUMMARIES.increment();
+            written.accept(p.summaryName);
+        } catch (IOException | RuntimeException e) {
+            FAILED.increment();
+            LOG.error("Could not write summary " + p.summaryName, e);
+        }
+    }
+
+    /**
+     * Wait until every queued summary is written and close the underlying sink.
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (stop(false)) {
+            sink.close();
+        }
+    }
+
+    /**
+     * Drop the summaries that are still queued, wait for the writer and abort the underlying sink.
+     * @throws IOException
+     */
+    @Override
+    public void abort() throws IOException {
+        if (stop(true)) {
+            sink.abort();
+        }
+    }
+
+    /**
+     * Stop the writer once it has written the queued summaries, or the ones it is writing if {@code discard}.
+     * @param discard whether to drop the summaries still in the queue
+     * @return false if the sink was already closed
+     */
+    private boolean stop(final boolean discard) {
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+        }
+        if (discard) {
+            queue.clear();
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(END);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+}
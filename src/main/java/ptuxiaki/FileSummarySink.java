@@ -0,0 +1,53 @@
+package ptuxiaki;
+
+import ptuxiaki.datastructures.Sentence;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Writes each summary to its own file in a directory, one sentence per line.
+ */
+public class FileSummarySink implements SummarySink {
+    private final Path dir;
+
+    /**
+     * @param dir the directory of the summaries, it is created if it does not exist
+     * @throws IOException if the directory can't be created
+     */
+    public FileSummarySink(final Path dir) throws IOException {
+        this.dir = Files.createDirectories(dir);
+    }
+
+    /**
+     * Write the summary to a temporary file first and then move it into place, so that
+     * a summary in the directory is either complete or not there at all. The sentences are
+     * buffered and written with a single write for most summaries.
+     * @param summaryName the file name of the summary, relative to the directory
+     * @param summary
+     * @throws IOException
+     */
+    @Override
+    public void accept(final String summaryName, final List<Sentence> summary) throws IOException {
+        final Path summaryFile = dir.resolve(summaryName);
+        // summaries of documents in subdirectories go in the same subdirectories
+        final Path parent = Files.createDirectories(summaryFile.getParent());
+        Path tmp = Files.createTempFile(parent, summaryFile.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Sentence s : summary) {
+                    writer.write(s.getText().trim());
+                    writer.write(System.lineSeparator());
+                }
+            }
+            Files.move(tmp, summaryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
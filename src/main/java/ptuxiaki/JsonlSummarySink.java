@@ -0,0 +1,121 @@
+package ptuxiaki;
+
+import ptuxiaki.datastructures.Sentence;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * <p>Writes the summaries of a run to a single JSON lines file, one summary per line. Along with its text
+ * every sentence carries its position in the document and inside its paragraph and the weights it was ranked with,
+ * so that the summaries can be re-ranked without summarizing the documents again:
+ *
+ * <pre>{"summary":"a.txt_summary_lucene_idf_nar","sentences":[{"position":1,"positionInParagraph":0,
+ * "type":"Sentence","titleTermWeight":0.579,"termsWeight":0.022,"locationWeight":0.833,"sentenceWeight":1.433,"text":"..."},...]}</pre>
+ *
+ * <p>Titles and subtitles are not ranked, their weights are the ones of an ignored sentence.
+ * Each record is written straight to the buffered file, sentence by sentence.
+ */
+public class JsonlSummarySink extends ArchiveSummarySink {
+    private final Writer writer;
+
+    /**
+     * @param file the JSON lines file
+     * @throws IOException
+     */
+    public JsonlSummarySink(final Path file) throws IOException {
+        super(file);
+        this.writer = new OutputStreamWriter(open(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void write(final String summaryName, final List<Sentence> summary) throws IOException {
+        writer.write("{\"summary\":");
+        quote(summaryName, writer);
+        writer.write(",\"sentences\":[");
+        for (int i = 0; i < summary.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            write(summary.get(i));
+        }
+        writer.write("]}\n");
+    }
+
+    private void write(final Sentence s) throws IOException {
+        writer.write("{\"position\":");
+        writer.write(String.valueOf(s.getPosition()));
+        writer.write(",\"positionInParagraph\":");
+        writer.write(String.valueOf(s.getPositionInParagraph()));
+        writer.write(",\"type\":");
+        quote(s.getType().toString(), writer);
+        writer.write(",\"titleTermWeight\":");
+        writer.write(number(s.getTitleTermWeight()));
+        writer.write(",\"termsWeight\":");
+        writer.write(number(s.getTermsWeight()));
+        writer.write(",\"locationWeight\":");
+        writer.write(number(s.getSLWeight()));
+        writer.write(",\"sentenceWeight\":");
+        writer.write(number(s.getSentenceWeight()));
+        writer.write(",\"text\":");
+        quote(s.getText().trim(), writer);
+        writer.write('}');
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * @param value
+     * @return the value as a JSON number, null if it is not a number or infinite
+     */
+    static String number(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return "null";
+        }
+        return Double.toString(value);
+    }
+
+    /**
+     * Write {@code s} to {@code out} as a JSON string.
+     * @param s
+     * @param out
+     * @throws IOException
+     */
+    static void quote(final String s, final Writer out) throws IOException {
+        out.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
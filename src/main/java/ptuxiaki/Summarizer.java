@@ -1,85 +1,218 @@
 package ptuxiaki;
 
 
-import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tika.exception.TikaException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
 import ptuxiaki.datastructures.Conf;
 import ptuxiaki.datastructures.Paragraph;
 import ptuxiaki.datastructures.Sentence;
-import ptuxiaki.datastructures.SentenceType;
+import ptuxiaki.datastructures.SentenceFrequencies;
+import ptuxiaki.datastructures.TermDictionary;
+import ptuxiaki.datastructures.TitleTerms;
 import ptuxiaki.extraction.TextExtractor;
 import ptuxiaki.indexing.Indexer;
+import ptuxiaki.indexing.TermFrequencies;
+import ptuxiaki.metrics.Counter;
+import ptuxiaki.metrics.Metrics;
+import ptuxiaki.metrics.Timer;
+import ptuxiaki.utils.CorpusWalker;
+import ptuxiaki.utils.ExecutorUtils;
 import ptuxiaki.utils.PropertyKey;
+import ptuxiaki.utils.TopK;
+import ptuxiaki.utils.Trace;
+import stemmer.StemCache;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
-import static java.lang.Math.log10;
 import static java.lang.Math.round;
-import static ptuxiaki.utils.MathUtils.log2p;
-import static ptuxiaki.utils.MathUtils.log3;
 import static ptuxiaki.utils.PropertyKey.*;
 
 
-public class Summarizer {
+public class Summarizer implements Closeable {
     public static final Path SUMMARY_DIR = Paths.get("summaries");
     public Conf conf;
 
     private static Logger LOG = LoggerFactory.getLogger(Summarizer.class);
-    private TextExtractor extractor;
+    private static final Logger TRACE = Trace.logger();
+
+    private static final Timer SUMMARIZE = Metrics.timer("summarize.document");
+    private static final Timer SCORE = Metrics.timer("summarize.score");
+    private static final Timer WRITE = Metrics.timer("summary.write");
+    private static final Counter DOCUMENTS = Metrics.counter("summarize.documents");
+    private static final Counter SENTENCES = Metrics.counter("summarize.sentences");
     private Indexer indexer;
 
+    /**
+     * Summarize with the index of the default index directory, opened on first use.
+     */
     public Summarizer() {
         this.conf = Conf.instance();
-        this.extractor = new TextExtractor();
-        if (!Files.exists(SUMMARY_DIR)) {
-            try {
-                Files.createDirectory(SUMMARY_DIR);
-            } catch (IOException e) {
-                System.out.println("Cannot create summarization directory. Exiting");
-                e.printStackTrace();
-                System.exit(0);
+    }
+
+    /**
+     * Summarize with the given index.
+     * @param indexer the index to look the documents and the document frequencies up, it is closed along with the summarizer
+     */
+    public Summarizer(final Indexer indexer) {
+        this();
+        this.indexer = indexer;
+    }
+
+    /**
+     * Sum tf * idf (or tf * isf) over the words of the sentence.
+     * @param sentence a sentence bound to {@code dictionary}
+     * @param dictionary the term dictionary of the document
+     * @param tfs the tf of each term id
+     * @param termWeights the idf or isf of each term id
+     * @param weightName used for tracing
+     * @return
+     */
+    private static double termsWeight(final Sentence sentence, final TermDictionary dictionary,
+                                      final double[] tfs, final double[] termWeights, final String weightName) {
+        double sum = 0;
+        final boolean trace = TRACE.isTraceEnabled();
+        for (int id : sentence.getTermIds()) {
+            if (trace) {
+                TRACE.trace(String.format("\tword: %s tf: %f %s: %f", dictionary.term(id), tfs[id], weightName, termWeights[id]));
             }
+            sum += tfs[id] * termWeights[id];
         }
+        return sum;
     }
 
     /**
-     * <p>Calculates the importance of the sentence based on how many title words it has.</p>
-     * @param sentence the stemmed sentence.
-     * @param titleWords a set of {@link Pair<String,SentenceType>} object. Each pair consists
-     *                   of the actual word and an enum denoting if the word was found on a title
-     *                   or subtitle of the document.
-     * @param tw the size of the title glossary
-     * @param mtw the size of the medially titles glossary
-     * @return a double
+     * Summarize a single document and hand the summary to {@code sink}.
+     * Can be called from several threads at once, all the per document state is local.
+     * @param root the directory being summarized
+     * @param file the document to summarize
+     * @param sink where the summary goes
+     * @return the name of the summary
+     * @throws IOException
      */
-    private double titleKeywords(Sentence sentence, Set<Pair<String, SentenceType>> titleWords, int tw, int mtw) {
-        double a = Double.valueOf(conf.getOrDefault("a", "0.6"));
-        double b = Double.valueOf(conf.getOrDefault("b", "0.4"));
-        int tt = 0, mtt = 0;
-        for (Pair<String, SentenceType> word : titleWords) {
-            if (sentence.getStemmedTermsAsList().contains(word.getKey())) {
-                if (word.getValue().equals(SentenceType.TITLE)) {
-                    tt++;
-                } else if (word.getValue().equals(SentenceType.SUBTITLE)) {
-                    mtt++;
-                }
+    private String summarizeFile(final Path root, final Path file, final SummarySink sink) throws IOException {
+        final List<Sentence> selectedSentences = summarize(file);
+        String summaryFileName = summaryName(root, file).concat("_summary").concat(configuration());
+        final long start = WRITE.start();
+        sink.accept(summaryFileName, selectedSentences);
+        WRITE.stop(start);
+        return summaryFileName;
+    }
+
+    /**
+     * <p>Summarize a single document.
+     * Can be called from several threads at once, all the per document state is local.
+     *
+     * <p>An indexed document is summarized from the text stored in the index, unless the text was cut off
+     * at {@link Conf#writeLimit()} when it was indexed. Such documents, and the ones that are not indexed,
+     * are parsed again and summarized whole. Their paragraphs are streamed out of the parser but all of them
+     * are kept, with the stemmed terms of every sentence: the title terms, the isf and the location weights
+     * depend on the whole document and the summary keeps a share of its sentences, so the memory used
+     * grows with the size of the document.
+     * @param file the document to summarize
+     * @return the sentences of the summary in the order they appear in the document
+     * @throws IOException
+     */
+    public List<Sentence> summarize(final Path file) throws IOException {
+        final long start = SUMMARIZE.start();
+        final Indexer indexer = indexer();
+        final String filePath = file.toString();
+        String fileName = file.getFileName().toString();
+        TextExtractor extractor = new TextExtractor();
+
+        // documents that are indexed already have their text stored in the index,
+        // so use that instead of parsing them again.
+        // Otherwise, or if the stored text is cut off, stream the paragraphs while the document is parsed,
+        // and count its terms from the sentences, the way summarize(String) does for a text.
+        final String contents = indexer.indexExists() ? indexer.storedContents(file) : null;
+        final int writeLimit = conf.writeLimit();
+        List<Paragraph> paragraphs;
+        final TermFrequencies termFreqs;
+        if (contents != null && (writeLimit < 0 || contents.length() < writeLimit)) {
+            paragraphs = extractor.extractParagraphs(contents);
+            termFreqs = indexer.termFrequencies(file);
+        } else {
+            paragraphs = new ArrayList<>();
+            extractor.setFile(filePath);
+            extractor.extractParagraphs(paragraphs::add);
+            termFreqs = indexer.analyze(sentenceTexts(paragraphs));
+        }
+        final List<Sentence> summary = summarize(fileName, paragraphs, termFreqs);
+        SUMMARIZE.stop(start);
+        return summary;
+    }
+
+    /**
+     * @param paragraphs
+     * @return the text of every sentence, titles included, in document order
+     */
+    private static List<String> sentenceTexts(final List<Paragraph> paragraphs) {
+        final List<String> texts = new ArrayList<>();
+        for (Paragraph p : paragraphs) {
+            for (int i = 0; i < p.numberOfSentences(); i++) {
+                texts.add(p.getIthSentence(i).getText());
             }
         }
-        if (tt == 0 && mtt == 0) return 0;
-        return (a * (log2p(tt)/log2p(tw))) + (b * (log3(mtt) / log3(mtw)));
+        return texts;
+    }
+
+    /**
+     * <p>Summarize a text that does not have to be in the index or on disk.
+     *
+     * <p>The term frequencies come from analyzing the text itself, while the idf uses the
+     * documents of the index. Nothing is written, the returned sentences carry their title term,
+     * terms, location and composite weights.
+     * Can be called from several threads at once.
+     * @param text the text of the document
+     * @return the sentences of the summary in the order they appear in the document
+     * @throws IOException
+     */
+    public List<Sentence> summarize(final String text) throws IOException {
+        final long start = SUMMARIZE.start();
+        final List<Paragraph> paragraphs = new TextExtractor().extractParagraphs(text);
+        final List<Sentence> summary = summarize("<text>", paragraphs, indexer().analyze(text));
+        SUMMARIZE.stop(start);
+        return summary;
+    }
+
+    /**
+     * Summarize a document of any format Tika can parse, read from {@code is}.
+     * The stream is read fully but not closed.
+     * @param is the document
+     * @return the sentences of the summary in the order they appear in the document
+     * @throws IOException
+     * @see Summarizer#summarize(String)
+     */
+    public List<Sentence> summarize(final InputStream is) throws IOException {
+        try {
+            return summarize(TextExtractor.extractText(is));
+        } catch (TikaException | SAXException e) {
+            throw new IOException("Could not extract the text of the document", e);
+        }
     }
 
-    private void summarizeFile(final String filePath) throws IOException {
+    /**
+     * Score the sentences of a document and select the ones of the summary.
+     * @param fileName the file name of the document, used for logging
+     * @param paragraphs the paragraphs of the document
+     * @param termFreqs the term frequencies of the document
+     * @return the sentences of the summary in the order they appear in the document
+     * @throws IOException
+     */
+    private List<Sentence> summarize(final String fileName, final List<Paragraph> paragraphs,
+                                     final TermFrequencies termFreqs) throws IOException {
         /***********************************Load properties values************************************************/
         int minWords = conf.minimumWords();
         double wsl = conf.sentenceLocationWeight(); // weight sentence location coefficient
@@ -88,12 +221,10 @@ public class Summarizer {
         String sw = conf.sentenceWeight(); // sentence weight function
         String pw = conf.paragraphWeight(); // sentence location weight function
         double compress = conf.compressRation() / 100.0;
-
-        int begin = filePath.lastIndexOf(File.separatorChar) + 1;
-        String fileName = filePath.substring(begin);
-        extractor.setFile(filePath);
-
-        List<Paragraph> paragraphs = extractor.extractParagraphs();
+        double a = conf.titleWordsCoefficient(); // title words coefficient of the title terms weight
+        double b = conf.subtitleWordsCoefficient(); // medially title words coefficient of the title terms weight
+        final Indexer indexer = indexer();
+        final long start = SCORE.start();
 
         int size = paragraphs.stream().map(Paragraph::getAllSentences).mapToInt(Collection::size).sum();
 
@@ -107,74 +238,60 @@ public class Summarizer {
             titlesSubtitles.addAll(p.getTitlesAndSubtitles());
         }
 
-        // Construct the global title dictionary.
-        // Constructing a Set of Pair objects. Each Pair object  is a <word, enum> denoting if the word
-        // is from a title or from a medially title. The word is stored as a stem of the original
-        Set<Pair<String, SentenceType>> titleWords = new HashSet<>();
-        titlesSubtitles.forEach(s -> {
-                    for (String str : s.getStemmedTerms()) {
-                        titleWords.add(Pair.of(str, s.isTitle() ? SentenceType.TITLE : SentenceType.SUBTITLE));
-                    }
-                });
+        // Give every stemmed term of the document an id, from here on the sentences are scored on those ids.
+        final TermDictionary dictionary = new TermDictionary();
+        sentences.forEach(s -> s.bindTerms(dictionary));
+        titlesSubtitles.forEach(s -> s.bindTerms(dictionary));
 
-        // if isf algorithm is picked for sentence weight, then we need to count
-        // how many times a term is present in each sentence.
-        HashMap<String, Integer> termsOccurrences = new HashMap<>();
+        // Construct the global title dictionary, the stems found on titles and on medially titles.
+        final TitleTerms titleTerms = new TitleTerms(titlesSubtitles, a, b);
+
+        // the tf of every term is needed for every word of every sentence
+        // so compute it once per term and reuse it.
+        final double[] tfs = termFreqs.tf(dictionary);
+
+        // the idf or isf of every term, depending on the sentence weight algorithm.
+        // For isf we need to count in how many sentences each term is present.
+        final double[] termWeights;
         if (sw.equals(ISF)) {
-            // Compute data for ISF
-            Set<String> terms = new HashSet<>();
-            sentences.forEach(s -> terms.addAll(s.getStemmedTermsAsList()));
-
-            // set initial occurrences to 1
-            terms.forEach(s -> termsOccurrences.put(s, 1));
-            for (String t : terms) {
-                for (Sentence s : sentences) {
-                    if (s.getStemmedTermsAsList().contains(t)) {
-                        termsOccurrences.replace(t, termsOccurrences.get(t), termsOccurrences.get(t) + 1);
-                    }
-                }
+            final SentenceFrequencies sentenceFreqs = new SentenceFrequencies(sentences, dictionary);
+            termWeights = new double[dictionary.size()];
+            for (int id = 0; id < termWeights.length; id++) {
+                termWeights[id] = sentenceFreqs.isf(id, size);
             }
+        } else {
+            termWeights = indexer.idf(dictionary);
         }
 
-        int titleTermsCount = (int)titleWords.stream().filter(p -> p.getValue().equals(SentenceType.TITLE)).count();
-        int mTitleTermsCount = (int)titleWords.stream().filter(p -> p.getValue().equals(SentenceType.SUBTITLE)).count();
-        // in order to avoid calculating log(0)
-        if (mTitleTermsCount == 0) {
-            mTitleTermsCount = 1;
-        }
-
-        if (titleTermsCount == 0) {
-            titleTermsCount = 1;
+        // the messages are only built when the trace is on
+        final boolean trace = TRACE.isDebugEnabled();
+        if (trace) {
+            TRACE.debug("========{}========", fileName);
         }
 
-        LOG.info(String.format("========%s========", fileName));
-
         for (Sentence s : sentences) {
             if (s.isSubTitle() || s.isTitle()) continue;
             if (s.hasLessThanNWords(minWords)) continue; // ignore sentence with less than minWords
-            final int i = s.getPosition();
             /** Calculate Title Term weight */
             // use log functions to determine importance see paper B47
-            s.setTitleTermWeight(
-                    titleKeywords(s, titleWords, titleTermsCount, mTitleTermsCount)
-            );
+            s.setTitleTermWeight(titleTerms.weight(s));
 
             /** Calculate sentence weight based on IDF or ISF */
             if (sw.equals(IDF)) {
                 // tfIdf sentence weight
-                indexer.assignSentenceWeight(s, fileName);
-                LOG.info(String.format("sentence: %s tt: %f", s.getStemmedTermsAsList(), s.getTitleTermWeight()));
+                if (trace) {
+                    TRACE.debug(String.format("sentence: %s tfIdf: %f", s, 0.0));
+                }
+                s.setTermsWeight(termsWeight(s, dictionary, tfs, termWeights, "idf"));
+                if (trace) {
+                    TRACE.debug(String.format("sentence: %s tt: %f", s.getStemmedTermsAsList(), s.getTitleTermWeight()));
+                }
             } else if (sw.equals(ISF)) {
-                double sum = 0;
                 // ISF sentence weight
-                for (String word : sentences.get(i).getStemmedTermsAsList()) {
-                    final double tfVal = indexer.tf(word, fileName);
-                    final double isfVal = log10((double)size / termsOccurrences.getOrDefault(word, 1));
-                    LOG.info(String.format("\tword: %s tf: %f isf: %f", word, tfVal, isfVal));
-                    sum += tfVal * isfVal;
+                s.setTermsWeight(termsWeight(s, dictionary, tfs, termWeights, "isf"));
+                if (trace) {
+                    TRACE.debug(String.format("sentence: %s tfIsf: %f tt: %f", s, s.getTermsWeight(), s.getTitleTermWeight()));
                 }
-                s.setTermsWeight(sum);
-                LOG.info(String.format("sentence: %s tfIsf: %f tt: %f", sentences.get(i), s.getTermsWeight(), s.getTitleTermWeight()));
             }
         }
 
@@ -212,12 +329,11 @@ public class Summarizer {
         /** Calculate combined weights value */
         sentences.forEach(s -> s.compositeWeight(wtt, wst, wsl));
 
-        LOG.debug(String.format("\t======================%s======================%n", fileName));
-        LOG.debug("Extracted sentences: \n");
-        paragraphs.forEach(p -> LOG.debug(p.toString()));
-
-        /** Sort based on that */
-        sentences.sort(Comparator.reverseOrder());
+        if (trace) {
+            TRACE.debug("\t======================{}======================", fileName);
+            TRACE.debug("Extracted sentences:");
+            paragraphs.forEach(p -> TRACE.debug("{}", p));
+        }
 
         /** Calculate the number of sentences we will keep based on compress ratio */
         int summarySents = (int)(size - (round(size * compress)));
@@ -227,9 +343,9 @@ public class Summarizer {
             summarySents = 2;
         }
 
-        // take a sublist of the sentences list and sort it by sentence position. this way we have the most
-        // relevant sentences and we can show them in the order they appear in the original document
-        List<Sentence> selectedSentences = sentences.subList(0, summarySents);
+        // select the most relevant sentences without sorting all of them and sort only those by sentence
+        // position. this way we can show them in the order they appear in the original document
+        List<Sentence> selectedSentences = TopK.select(sentences, summarySents, Comparator.naturalOrder());
         selectedSentences.sort(Comparator.comparingInt(Sentence::getPosition));
 
         boolean showTitles = Boolean.valueOf(conf.getOrDefault(PropertyKey.SHOWTITLES, "true"));
@@ -237,21 +353,37 @@ public class Summarizer {
             // merge selectedSentences with titles collection
             selectedSentences = merge(selectedSentences, titlesSubtitles);
         }
-        String summaryFileName = fileName.concat("_summary")
-                .concat("_" + conf.stemmerClass())
-                .concat("_" + conf.sentenceWeight())
-                .concat("_" + conf.paragraphWeight());
-        try(FileOutputStream fos = new FileOutputStream(SUMMARY_DIR.toString() + File.separatorChar + summaryFileName)) {
-            for (Sentence s : selectedSentences) {
-                fos.write(s.getText()
-                        .trim()
-                        .concat(System.lineSeparator())
-                        .getBytes(StandardCharsets.UTF_8)
-                );
-            }
-        }
-        System.out.println("New summary saved to: " + summaryFileName);
-        System.out.println();
+        SCORE.stop(start);
+        DOCUMENTS.increment();
+        SENTENCES.add(size);
+        return selectedSentences;
+    }
+
+    /**
+     * The name of a document relative to the directory being summarized, with / as the separator.
+     * Documents with the same file name in different subdirectories get different summaries,
+     * while the ones directly under {@code root} keep their file name.
+     * @param root the directory being summarized
+     * @param file a document under {@code root}
+     * @return
+     */
+    static String summaryName(final Path root, final Path file) {
+        final Path relative = root.toAbsolutePath().normalize().relativize(file.toAbsolutePath().normalize());
+        final StringJoiner name = new StringJoiner("/");
+        relative.forEach(p -> name.add(p.toString()));
+        return name.toString();
+    }
+
+    /**
+     * @return the stemmer, sentence weight and paragraph weight the summaries are computed with,
+     * as they appear in the names of the summaries
+     */
+    private String configuration() {
+        return "_" + conf.stemmerClass() + "_" + conf.sentenceWeight() + "_" + conf.paragraphWeight();
+    }
+
+    private static void printSaved(final String summaryFileName) {
+        System.out.println("New summary saved to: " + summaryFileName + System.lineSeparator());
     }
 
     /**
@@ -268,29 +400,174 @@ public class Summarizer {
         return merged;
     }
 
+    /**
+     * Summarize every document under {@code dir}, including the ones in its subdirectories,
+     * and write the summaries in {@link Summarizer#SUMMARY_DIR} as set by {@link Conf#output()}.
+     * The summaries are written by a background thread while the next documents are summarized,
+     * and each one is reported once it is written. If the run fails, or there is nothing to summarize,
+     * an archive of a previous run is left as it was.
+     * @param dir the directory of the documents
+     * @throws IOException
+     * @see Summarizer#summarizeDirectory(Path, SummarySink)
+     */
     public void summarizeDirectory(final Path dir) throws IOException {
-        this.indexer = new Indexer();
+        final SummarySink target = openSink();
+        final SummarySink sink = new AsyncSummarySink(target, conf.outputQueue(), Summarizer::printSaved);
+        final boolean summarized;
+        try {
+            summarized = summarizeDirectory(dir, sink);
+        } catch (IOException | RuntimeException e) {
+            try {
+                sink.abort();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        if (!summarized) {
+            sink.abort();
+            return;
+        }
+        sink.close();
+        if (target instanceof ArchiveSummarySink) {
+            System.out.println("Summaries saved to: " + ((ArchiveSummarySink) target).file());
+        }
+    }
 
-        // there is a problem here. If we want to summarize another directory we can't index those new files
-        // because of the way the indexer was implemented. We need to delete the index directory gather all
-        // the files we want to summarize in a directory pass that directory to indexer and then do the summary.
+    /**
+     * @return a sink writing in {@link Summarizer#SUMMARY_DIR} either a file per document or,
+     * for the archive outputs, a single file named after the configuration
+     * @throws IOException
+     */
+    private SummarySink openSink() throws IOException {
+        switch (conf.output()) {
+            case OUTPUT_JSONL:
+                return new JsonlSummarySink(SUMMARY_DIR.resolve("summaries" + configuration() + ".jsonl"));
+            case OUTPUT_ZIP:
+                return new ZipSummarySink(SUMMARY_DIR.resolve("summaries" + configuration() + ".zip"));
+            default:
+                return new FileSummarySink(SUMMARY_DIR);
+        }
+    }
 
-        if (!indexer.indexExists()) {
-            indexer.indexDirectory(dir.toString());
+    /**
+     * Summarize every document under {@code dir}, including the ones in its subdirectories.
+     * The documents are the ones picked by {@link CorpusWalker#of(Path)}, the same the index is built from.
+     * @param dir the directory of the documents
+     * @param sink where the summaries go, it is not closed. The summaries are not reported one by one here,
+     *             see {@link AsyncSummarySink#AsyncSummarySink(SummarySink, int, java.util.function.Consumer)}
+     * @return false if there was no document to summarize
+     * @throws IOException
+     */
+    public boolean summarizeDirectory(final Path dir, final SummarySink sink) throws IOException {
+        // bring the index up to date with the directory, only new and modified files are indexed
+        if (!indexDirectory(dir)) {
+            System.out.println("Empty directory " + dir);
+            return false;
         }
 
-        try {
-            for (File f : dir.toFile().listFiles()) {
+        final int threads = conf.threads();
+        final CorpusWalker walker = CorpusWalker.of(dir);
+        if (threads > 1) {
+            summarizeInParallel(dir, walker, threads, sink);
+        } else {
+            walker.walk(f -> {
                 try {
-                    if (f.isHidden()) continue;
-                    summarizeFile(f.toString());
+                    summarizeFile(dir, f, sink);
                 } catch (IOException e) {
                     e.printStackTrace();
                 }
+            });
+        }
+        LOG.info(String.format("Stem cache %s: %s", conf.stemmerClass(), StemCache.forStemmer(conf.stemmerClass())));
+        return walker.visited() > 0;
+    }
+
+    /**
+     * Bring the index up to date with the documents under {@code dir}.
+     * Only new and modified files are indexed.
+     * @param dir the directory of the documents
+     * @return true if the directory was indexed
+     * @throws IOException
+     */
+    public boolean indexDirectory(final Path dir) throws IOException {
+        return indexer().indexDirectory(dir.toString());
+    }
+
+    /**
+     * @return the number of documents in the index
+     * @throws IOException
+     */
+    public int indexedDocuments() throws IOException {
+        return indexer().numDocs();
+    }
+
+    /**
+     * The index the summaries are computed with, opened on first use.
+     * @return
+     * @throws IOException
+     */
+    private synchronized Indexer indexer() throws IOException {
+        if (indexer == null) {
+            indexer = new Indexer();
+        }
+        return indexer;
+    }
+
+    /**
+     * Close the index used for the summaries.
+     * @throws IOException
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (indexer != null) {
+            indexer.close();
+            indexer = null;
+        }
+    }
+
+    /**
+     * <p>Summarize the files using a pool of {@code threads} workers.
+     *
+     * <p>Each worker extracts, scores and writes the summary of one file at a time while all of
+     * them share the same index reader. At most {@code 2 * threads} files are in flight, and
+     * the failures are reported in the order the files were given.
+     * @param root the directory being summarized
+     * @param walker walks the files to summarize
+     * @param threads the number of workers
+     * @param sink where the summaries go
+     * @throws IOException
+     */
+    private void summarizeInParallel(final Path root, final CorpusWalker walker, final int threads,
+                                     final SummarySink sink) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Deque<Future<String>> pending = new ArrayDeque<>();
+        try {
+            walker.walk(f -> {
+                pending.add(pool.submit(() -> summarizeFile(root, f, sink)));
+                if (pending.size() >= 2 * threads) {
+                    report(pending.poll());
+                }
+            });
+            while (!pending.isEmpty()) {
+                report(pending.poll());
             }
-        } catch (NullPointerException npe) {
-            System.out.println("Empty directory " + dir);
-            npe.printStackTrace();
+        } finally {
+            // don't interrupt the workers in the middle of a read, drop the files that are not summarized yet
+            // and wait for the rest, so that nothing is written while the sink is aborted or the index closed.
+            pending.forEach(task -> task.cancel(false));
+            pool.shutdown();
+            ExecutorUtils.awaitTermination(pool);
+        }
+    }
+
+    private static void report(final Future<String> summary) {
+        try {
+            summary.get();
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 }
@@ -0,0 +1,194 @@
+package ptuxiaki;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ptuxiaki.datastructures.Sentence;
+import stemmer.StemCache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>Keeps a {@link Summarizer} resident and serves summaries over HTTP on the loopback interface.
+ *
+ * <p>The index, its reader, the analyzer and the stem cache stay open between requests, so a
+ * summary costs only the scoring of the document instead of starting the JVM and reopening the index.
+ *
+ * <ul>
+ *     <li>{@code GET /summarize?path=/path/to/file} the summary of the file, one sentence per line</li>
+ *     <li>{@code POST /summarize} the summary of the document sent as the request body, nothing is written to disk</li>
+ *     <li>{@code POST /index?dir=/path/to/dir} bring the index up to date with a directory</li>
+ *     <li>{@code GET /stats} number of indexed documents and stem cache statistics</li>
+ * </ul>
+ */
+public class SummaryServer implements Closeable {
+    private static Logger LOG = LoggerFactory.getLogger(SummaryServer.class);
+
+    private static final String TEXT_PLAIN = "text/plain; charset=utf-8";
+
+    private final Summarizer summarizer;
+    private final HttpServer server;
+    private final ExecutorService pool;
+
+    /**
+     * @param summarizer used to answer every request, it is not closed by the server
+     * @param port the port to listen to, 0 for any free port
+     * @param threads number of requests served in parallel
+     * @throws IOException if the port can't be bound
+     */
+    public SummaryServer(final Summarizer summarizer, final int port, final int threads) throws IOException {
+        this.summarizer = summarizer;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.pool = Executors.newFixedThreadPool(threads);
+        server.setExecutor(pool);
+        server.createContext("/summarize", this::summarize);
+        server.createContext("/index", this::index);
+        server.createContext("/stats", this::stats);
+    }
+
+    public void start() {
+        server.start();
+        LOG.info(String.format("Listening on %s", address()));
+    }
+
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    private void summarize(final HttpExchange exchange) throws IOException {
+        if (!allow(exchange, "GET", "POST")) {
+            return;
+        }
+        if ("POST".equals(exchange.getRequestMethod())) {
+            try (InputStream body = exchange.getRequestBody()) {
+                send(exchange, 200, lines(summarizer.summarize(body)));
+            } catch (Exception e) {
+                LOG.warn("Could not summarize the request body", e);
+                send(exchange, 500, "Could not summarize the request body");
+            }
+            return;
+        }
+        final String path = query(exchange).get("path");
+        if (path == null) {
+            send(exchange, 400, "Missing parameter path");
+            return;
+        }
+        final Path file = Paths.get(path);
+        if (!Files.isRegularFile(file)) {
+            send(exchange, 404, "No such file " + path);
+            return;
+        }
+        try {
+            send(exchange, 200, lines(summarizer.summarize(file)));
+        } catch (Exception e) {
+            LOG.warn(String.format("Could not summarize %s", path), e);
+            send(exchange, 500, "Could not summarize " + path);
+        }
+    }
+
+    private void index(final HttpExchange exchange) throws IOException {
+        if (!allow(exchange, "POST")) {
+            return;
+        }
+        final String dir = query(exchange).get("dir");
+        if (dir == null) {
+            send(exchange, 400, "Missing parameter dir");
+            return;
+        }
+        try {
+            if (summarizer.indexDirectory(Paths.get(dir))) {
+                send(exchange, 200, "Indexed documents: " + summarizer.indexedDocuments());
+            } else {
+                send(exchange, 404, "No such directory " + dir);
+            }
+        } catch (Exception e) {
+            LOG.warn(String.format("Could not index %s", dir), e);
+            send(exchange, 500, "Could not index " + dir);
+        }
+    }
+
+    private void stats(final HttpExchange exchange) throws IOException {
+        if (!allow(exchange, "GET")) {
+            return;
+        }
+        final String stemmer = summarizer.conf.stemmerClass();
+        send(exchange, 200, String.format("Indexed documents: %d%nStem cache %s: %s%n",
+                summarizer.indexedDocuments(), stemmer, StemCache.forStemmer(stemmer)));
+    }
+
+    private static String lines(final List<Sentence> summary) {
+        final StringBuilder sb = new StringBuilder();
+        for (Sentence s : summary) {
+            sb.append(s.getText().trim()).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Answer with 405 unless the request method is one of {@code methods}.
+     * @param exchange
+     * @param methods the methods the resource supports
+     * @return true if the request can be served
+     * @throws IOException
+     */
+    private static boolean allow(final HttpExchange exchange, final String... methods) throws IOException {
+        if (Arrays.asList(methods).contains(exchange.getRequestMethod())) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", String.join(", ", methods));
+        send(exchange, 405, "Method not allowed");
+        return false;
+    }
+
+    private static Map<String, String> query(final HttpExchange exchange) throws UnsupportedEncodingException {
+        final Map<String, String> params = new HashMap<>();
+        final String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String param : query.split("&")) {
+            final int eq = param.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(param.substring(0, eq), "UTF-8"),
+                        URLDecoder.decode(param.substring(eq + 1), "UTF-8"));
+            }
+        }
+        return params;
+    }
+
+    private static void send(final HttpExchange exchange, final int status, final String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", TEXT_PLAIN);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    /**
+     * Stop accepting requests, wait a second for the ones in flight and release the threads.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,41 @@
+package ptuxiaki;
+
+import ptuxiaki.datastructures.Sentence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where the summaries of a batch run end up, see {@link Summarizer#summarizeDirectory(java.nio.file.Path, SummarySink)}.
+ * Implementations must accept summaries from several threads at once.
+ */
+public interface SummarySink extends Closeable {
+
+    /**
+     * Store the summary of a document.
+     * @param summaryName the name of the summary, unique per document and configuration. The documents in
+     *                    subdirectories have the path relative to the summarized directory in it, separated by /
+     * @param summary the sentences of the summary in the order they appear in the document
+     * @throws IOException
+     */
+    void accept(String summaryName, List<Sentence> summary) throws IOException;
+
+    /**
+     * Called once every summary is accepted.
+     * @throws IOException
+     */
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * Called instead of {@link SummarySink#close()} when the run fails or there is nothing to summarize.
+     * The summaries accepted so far may be discarded, but whatever the sink replaces must be left as it was.
+     * Defaults to {@link SummarySink#close()}.
+     * @throws IOException
+     */
+    default void abort() throws IOException {
+        close();
+    }
+}
@@ -0,0 +1,43 @@
+package ptuxiaki;
+
+import ptuxiaki.datastructures.Sentence;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes the summaries of a run to a single zip file, one entry per summary with one sentence per line,
+ * the same as the files written by {@link FileSummarySink}.
+ */
+public class ZipSummarySink extends ArchiveSummarySink {
+    private final ZipOutputStream zip;
+
+    /**
+     * @param file the zip file
+     * @throws IOException
+     */
+    public ZipSummarySink(final Path file) throws IOException {
+        super(file);
+        this.zip = new ZipOutputStream(open(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void write(final String summaryName, final List<Sentence> summary) throws IOException {
+        final StringBuilder sb = new StringBuilder(1024);
+        for (Sentence s : summary) {
+            sb.append(s.getText().trim()).append(System.lineSeparator());
+        }
+        zip.putNextEntry(new ZipEntry(summaryName));
+        zip.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        zip.close();
+    }
+}
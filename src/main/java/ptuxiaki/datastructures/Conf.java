@@ -1,5 +1,6 @@
 package ptuxiaki.datastructures;
 
+import ptuxiaki.utils.CorpusWalker;
 import ptuxiaki.utils.PropertyKey;
 
 import java.io.FileInputStream;
@@ -105,6 +106,22 @@ public class Conf {
         return Double.parseDouble(props.getProperty(PropertyKey.WTT));
     }
 
+    /**
+     * Coefficient of the title words inside tt, defaults to 0.6
+     * @return
+     */
+    public double titleWordsCoefficient() {
+        return Double.parseDouble(getOrDefault(PropertyKey.A, "0.6"));
+    }
+
+    /**
+     * Coefficient of the subtitle words inside tt, defaults to 0.4
+     * @return
+     */
+    public double subtitleWordsCoefficient() {
+        return Double.parseDouble(getOrDefault(PropertyKey.B, "0.4"));
+    }
+
     /**
      * <p>Algorithm to compute sentence weight.</p>
      * Possible values <strong>idf</strong> <strong>isf</strong>
@@ -128,6 +145,128 @@ public class Conf {
         return props.getProperty(PropertyKey.STEMMER).toLowerCase();
     }
 
+    /**
+     * <p>Number of threads used to summarize the documents of a directory.</p>
+     * Defaults to 1, summarizing one document at a time.
+     * @return
+     */
+    public int threads() {
+        return Integer.parseInt(getOrDefault(PropertyKey.THREADS, "1"));
+    }
+
+    /**
+     * <p>Maximum number of characters extracted from a document to be indexed and stored in the index.</p>
+     * Defaults to 100000 like Tika does, -1 means no limit. The terms past the limit do not count in the
+     * document frequencies. Documents that are longer, or not in the index, are streamed when they are
+     * summarized and have no limit.
+     * @return
+     */
+    public int writeLimit() {
+        return Integer.parseInt(getOrDefault(PropertyKey.WRITE_LIMIT, "100000"));
+    }
+
+    /**
+     * <p>Maximum number of terms whose document frequency is kept in memory.</p>
+     * Defaults to 262144.
+     * @return
+     */
+    public int docFreqCacheSize() {
+        return Integer.parseInt(getOrDefault(PropertyKey.DF_CACHE_SIZE, "262144"));
+    }
+
+    /**
+     * <p>Number of threads used to parse and analyze the documents while indexing.</p>
+     * Defaults to {@link Conf#threads()}.
+     * @return
+     */
+    public int indexThreads() {
+        return Integer.parseInt(getOrDefault(PropertyKey.INDEX_THREADS, String.valueOf(threads())));
+    }
+
+    /**
+     * <p>Size in MB of the buffer the indexed documents are kept in before they are flushed to disk.</p>
+     * Defaults to 64.
+     * @return
+     */
+    public double ramBufferSize() {
+        return Double.parseDouble(getOrDefault(PropertyKey.RAM_BUFFER_SIZE, "64"));
+    }
+
+    /**
+     * <p>Number of segments the index is merged to after indexing.</p>
+     * A single segment makes the lookups done while summarizing faster, at the cost of
+     * rewriting the index. Defaults to 0, leaving the segments to the merge policy.
+     * @return
+     */
+    public int forceMergeSegments() {
+        return Integer.parseInt(getOrDefault(PropertyKey.FORCE_MERGE, "0"));
+    }
+
+    /**
+     * <p>Comma separated glob patterns of the documents to index and summarize.</p>
+     * Defaults to every file, see {@link CorpusWalker}.
+     * @return
+     */
+    public String include() {
+        return getOrDefault(PropertyKey.INCLUDE, CorpusWalker.DEFAULT_INCLUDE);
+    }
+
+    /**
+     * <p>Comma separated glob patterns of the files and directories to skip.</p>
+     * Defaults to hidden, lock and class files, see {@link CorpusWalker}.
+     * @return
+     */
+    public String exclude() {
+        return getOrDefault(PropertyKey.EXCLUDE, CorpusWalker.DEFAULT_EXCLUDE);
+    }
+
+    /**
+     * <p>Whether the stages of the program are timed and counted, see {@link ptuxiaki.metrics.Metrics}.</p>
+     * Defaults to false, or true if a {@link Conf#metricsReport()} is set.
+     * @return
+     */
+    public boolean metrics() {
+        return Boolean.parseBoolean(getOrDefault(PropertyKey.METRICS, String.valueOf(metricsReport() != null)));
+    }
+
+    /**
+     * <p>File the metrics are appended to periodically, as CSV if its name ends in .csv or as JSON lines otherwise.</p>
+     * Defaults to none, the metrics are then only available through JMX.
+     * @return
+     */
+    public String metricsReport() {
+        return getOrDefault(PropertyKey.METRICS_REPORT, null);
+    }
+
+    /**
+     * <p>Seconds between two metrics reports.</p>
+     * Defaults to 10.
+     * @return
+     */
+    public long metricsInterval() {
+        return Long.parseLong(getOrDefault(PropertyKey.METRICS_INTERVAL, "10"));
+    }
+
+    /**
+     * <p>How the summaries of a directory are written: {@value PropertyKey#OUTPUT_DIR} a file per document,
+     * {@value PropertyKey#OUTPUT_JSONL} a single JSON lines file with the weights of every sentence,
+     * see {@link ptuxiaki.JsonlSummarySink}, or {@value PropertyKey#OUTPUT_ZIP} a single zip file.</p>
+     * Defaults to {@value PropertyKey#OUTPUT_DIR}.
+     * @return
+     */
+    public String output() {
+        return getOrDefault(PropertyKey.OUTPUT, PropertyKey.OUTPUT_DIR).toLowerCase();
+    }
+
+    /**
+     * <p>Maximum number of summaries waiting to be written by the background writer.</p>
+     * Defaults to 1024.
+     * @return
+     */
+    public int outputQueue() {
+        return Integer.parseInt(getOrDefault(PropertyKey.OUTPUT_QUEUE, "1024"));
+    }
+
     public String getOrDefault(final String key, String defaultValue) {
         String prop = props.getProperty(key);
         return prop == null ? defaultValue : prop;
@@ -3,7 +3,9 @@ package ptuxiaki.datastructures;
 import ptuxiaki.utils.SentenceUtils;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 
 
 /**
@@ -20,6 +22,21 @@ public class Sentence implements Comparable<Sentence> {
      */
     private String stemmedText;
 
+    /**
+     * The stemmed sentence split to terms
+     */
+    private final String[] stemmedTerms;
+
+    /**
+     * The ids of {@code stemmedTerms} in the document's {@link TermDictionary}
+     */
+    private int[] termIds;
+
+    /**
+     * The distinct ids of {@code termIds} sorted, for membership tests
+     */
+    private int[] distinctTermIds;
+
     /**
      * What kind of sentence it is
      * @see SentenceType
@@ -116,6 +133,7 @@ public class Sentence implements Comparable<Sentence> {
         this.titleTermWeight = -10.0;
         this.sentenceLocationWeight = -10.0;
         this.stemmedText = SentenceUtils.stemSentence(text);
+        this.stemmedTerms = stemmedText.split("\\s+");
         this.wordsCount = text.split("\\s+").length;
         this.ignored = true;
     }
@@ -132,12 +150,54 @@ public class Sentence implements Comparable<Sentence> {
         return this.text;
     }
 
+    /**
+     * The stemmed terms of the sentence. The array is shared, it must not be modified.
+     * @return
+     */
     public String [] getStemmedTerms() {
-        return this.stemmedText.split("\\s+");
+        return this.stemmedTerms;
     }
 
     public List<String> getStemmedTermsAsList() {
-        return Arrays.asList(this.stemmedText.split("\\s+"));
+        return Collections.unmodifiableList(Arrays.asList(this.stemmedTerms));
+    }
+
+    /**
+     * Assign to each stemmed term of the sentence its id in the document's dictionary.
+     * @param dictionary the term dictionary of the document the sentence belongs to
+     */
+    public void bindTerms(final TermDictionary dictionary) {
+        termIds = new int[stemmedTerms.length];
+        for (int i = 0; i < stemmedTerms.length; i++) {
+            termIds[i] = dictionary.id(stemmedTerms[i]);
+        }
+        distinctTermIds = IntStream.of(termIds).sorted().distinct().toArray();
+    }
+
+    /**
+     * The ids of the stemmed terms, in the order they appear in the sentence.
+     * Available after {@link Sentence#bindTerms(TermDictionary)}. The array is shared, it must not be modified.
+     * @return
+     */
+    public int[] getTermIds() {
+        return termIds;
+    }
+
+    /**
+     * The distinct term ids of the sentence in ascending order.
+     * Available after {@link Sentence#bindTerms(TermDictionary)}. The array is shared, it must not be modified.
+     * @return
+     */
+    public int[] getDistinctTermIds() {
+        return distinctTermIds;
+    }
+
+    /**
+     * @param termId a term id of the document's dictionary
+     * @return True if the sentence contains the term
+     */
+    public boolean containsTerm(final int termId) {
+        return Arrays.binarySearch(distinctTermIds, termId) >= 0;
     }
 
     public double getTermsWeight() {
@@ -189,6 +249,17 @@ public class Sentence implements Comparable<Sentence> {
         ignored = false;
     }
 
+    public double getSLWeight() {
+        return sentenceLocationWeight;
+    }
+
+    /**
+     * @return the composite weight the sentences are ranked with, see {@link Sentence#compositeWeight(double, double, double)}
+     */
+    public double getSentenceWeight() {
+        return sentenceWeight;
+    }
+
     /**
      * @param n
      * @return True if the sentence has n or less words, False otherwise
@@ -204,6 +275,17 @@ public class Sentence implements Comparable<Sentence> {
         return position;
     }
 
+    /**
+     * @return the position of the sentence inside its paragraph, 0 for the first one
+     */
+    public int getPositionInParagraph() {
+        return parPosition;
+    }
+
+    public SentenceType getType() {
+        return type;
+    }
+
     public boolean isFirstInParagraph() {
         return parPosition == 0;
     }
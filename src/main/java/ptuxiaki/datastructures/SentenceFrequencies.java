@@ -0,0 +1,53 @@
+package ptuxiaki.datastructures;
+
+import java.util.Collection;
+
+import static java.lang.Math.log10;
+
+/**
+ * <p>Sentence frequency table of a document used by the ISF algorithm.
+ *
+ * <p>For each term of the document's {@link TermDictionary} it holds in how many sentences
+ * the term is present. The table is built in a single pass over the sentences, each sentence
+ * contributing its distinct terms once.
+ */
+public class SentenceFrequencies {
+
+    /**
+     * term id --> number of sentences the term is present in
+     */
+    private final int[] counts;
+
+    /**
+     * @param sentences the sentences of the document, bound to {@code dictionary}
+     * @param dictionary the term dictionary of the document
+     */
+    public SentenceFrequencies(final Collection<Sentence> sentences, final TermDictionary dictionary) {
+        counts = new int[dictionary.size()];
+        for (Sentence s : sentences) {
+            for (int id : s.getDistinctTermIds()) {
+                counts[id]++;
+            }
+        }
+    }
+
+    /**
+     * The occurrences of a term as used by the isf equation. That is the number
+     * of sentences that contain the term plus one, so that it is never zero.
+     * @param termId the id of the term, or -1 for a term not in the dictionary
+     * @return 1 + the number of sentences the term is present in.
+     */
+    public int occurrences(final int termId) {
+        return termId < 0 ? 1 : counts[termId] + 1;
+    }
+
+    /**
+     * Compute the inverse sentence frequency of a term.
+     * @param termId the id of the term
+     * @param size the number of sentences of the document
+     * @return
+     */
+    public double isf(final int termId, final int size) {
+        return log10((double) size / occurrences(termId));
+    }
+}
@@ -0,0 +1,55 @@
+package ptuxiaki.datastructures;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Assigns a dense integer id to each distinct stemmed term of a document.
+ *
+ * <p>Sentences are bound to the dictionary with {@link Sentence#bindTerms(TermDictionary)}, after that
+ * scoring works on term ids and arrays indexed by them instead of Strings and maps.
+ */
+public class TermDictionary {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+
+    /**
+     * Get the id of a term, assigning the next free id if it is a new one.
+     * @param term the stemmed word
+     * @return the id of the term
+     */
+    public int id(final String term) {
+        Integer id = ids.get(term);
+        if (id == null) {
+            id = terms.size();
+            ids.put(term, id);
+            terms.add(term);
+        }
+        return id;
+    }
+
+    /**
+     * @param term the stemmed word
+     * @return the id of the term or -1 if it is not in the dictionary
+     */
+    public int lookup(final String term) {
+        return ids.getOrDefault(term, -1);
+    }
+
+    public String term(final int id) {
+        return terms.get(id);
+    }
+
+    /**
+     * @return the terms ordered by id
+     */
+    public List<String> terms() {
+        return terms;
+    }
+
+    public int size() {
+        return terms.size();
+    }
+}
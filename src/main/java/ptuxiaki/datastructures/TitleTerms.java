@@ -0,0 +1,70 @@
+package ptuxiaki.datastructures;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+import static ptuxiaki.utils.MathUtils.log2p;
+import static ptuxiaki.utils.MathUtils.log3;
+
+/**
+ * <p>The title glossary of a document, used to weight sentences by the title words they contain.
+ *
+ * <p>It is built once per document from its titles and subtitles. The stems of each kind are kept as a
+ * set of term ids of the document's {@link TermDictionary}, so weighting a sentence is a single pass
+ * over its own distinct terms.
+ */
+public class TitleTerms {
+    private final BitSet titleTerms = new BitSet();
+    private final BitSet subtitleTerms = new BitSet();
+
+    /**
+     * the size of the title glossary, at least 1 in order to avoid calculating log(0)
+     */
+    private final int tw;
+
+    /**
+     * the size of the medially titles glossary, at least 1 in order to avoid calculating log(0)
+     */
+    private final int mtw;
+
+    private final double a;
+    private final double b;
+
+    /**
+     * @param titlesSubtitles the titles and subtitles of the document, bound to the document's dictionary
+     * @param a the coefficient of the title words
+     * @param b the coefficient of the subtitle words
+     */
+    public TitleTerms(final Collection<Sentence> titlesSubtitles, final double a, final double b) {
+        for (Sentence s : titlesSubtitles) {
+            final BitSet terms = s.isTitle() ? titleTerms : subtitleTerms;
+            for (int id : s.getDistinctTermIds()) {
+                terms.set(id);
+            }
+        }
+        this.tw = Math.max(1, titleTerms.cardinality());
+        this.mtw = Math.max(1, subtitleTerms.cardinality());
+        this.a = a;
+        this.b = b;
+    }
+
+    /**
+     * <p>Calculates the importance of the sentence based on how many title words it has.</p>
+     * Uses log functions to determine importance see paper B47
+     * @param sentence a sentence bound to the document's dictionary
+     * @return a double
+     */
+    public double weight(final Sentence sentence) {
+        int tt = 0, mtt = 0;
+        for (int id : sentence.getDistinctTermIds()) {
+            if (titleTerms.get(id)) {
+                tt++;
+            }
+            if (subtitleTerms.get(id)) {
+                mtt++;
+            }
+        }
+        if (tt == 0 && mtt == 0) return 0;
+        return (a * (log2p(tt)/log2p(tw))) + (b * (log3(mtt) / log3(mtw)));
+    }
+}
@@ -0,0 +1,82 @@
+package ptuxiaki.extraction;
+
+import org.apache.tika.sax.BodyContentHandler;
+import org.apache.tika.sax.ContentHandlerDecorator;
+import org.apache.tika.sax.ToTextContentHandler;
+import org.xml.sax.SAXException;
+
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * <p>A SAX content handler that splits the body text of a document to paragraph blocks
+ * while Tika is still parsing it.
+ *
+ * <p>The text is the same {@link BodyContentHandler} produces, but instead of collecting it, every
+ * line is handed to the consumer as soon as its new line character arrives. Only the current line is
+ * kept in memory, so there is no limit on the size of the document.
+ */
+public class ParagraphContentHandler extends ContentHandlerDecorator {
+
+    private final LineWriter lines;
+
+    /**
+     * @param blocks receives each non empty line of the document text, in order.
+     */
+    public ParagraphContentHandler(final Consumer<String> blocks) {
+        this(new LineWriter(blocks));
+    }
+
+    private ParagraphContentHandler(final LineWriter lines) {
+        super(new BodyContentHandler(new ToTextContentHandler(lines)));
+        this.lines = lines;
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        super.endDocument();
+        // the last line of the document may not end with a new line
+        lines.emit();
+    }
+
+    /**
+     * Collects characters up to the next new line.
+     */
+    private static class LineWriter extends Writer {
+        private final Consumer<String> blocks;
+        private final StringBuilder line = new StringBuilder();
+
+        LineWriter(final Consumer<String> blocks) {
+            this.blocks = blocks;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            final int end = off + len;
+            int start = off;
+            for (int i = off; i < end; i++) {
+                if (cbuf[i] == '\n') {
+                    line.append(cbuf, start, i - start);
+                    emit();
+                    start = i + 1;
+                }
+            }
+            line.append(cbuf, start, end - start);
+        }
+
+        void emit() {
+            if (line.length() > 0) {
+                blocks.accept(line.toString());
+                line.setLength(0);
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -6,11 +6,15 @@ import org.apache.tika.io.TikaInputStream;
 import org.apache.tika.metadata.Metadata;
 import org.apache.tika.parser.AutoDetectParser;
 import org.apache.tika.sax.BodyContentHandler;
+import org.apache.tika.sax.WriteOutContentHandler;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.SAXException;
+import ptuxiaki.datastructures.Conf;
 import ptuxiaki.datastructures.Paragraph;
 import ptuxiaki.datastructures.Sentence;
 import ptuxiaki.datastructures.SentenceType;
+import ptuxiaki.metrics.Metrics;
+import ptuxiaki.metrics.Timer;
 import ptuxiaki.utils.SentenceUtils;
 
 import java.io.File;
@@ -18,6 +22,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.text.BreakIterator;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -28,14 +33,47 @@ public class TextExtractor {
 
     private static final int SECONDARY_TITLE_MIN_WORDS = 9;
 
-    private ContentHandler extractFileContent() throws SAXException, TikaException, IOException  {
-        AutoDetectParser parser = new AutoDetectParser();
+    /**
+     * Building a parser loads the whole Tika configuration, so every document and every thread share this one.
+     * The parsers are thread safe, only the metadata and the content handler are per document.
+     */
+    private static final AutoDetectParser PARSER = new AutoDetectParser();
+
+    private static final Timer PARSE = Metrics.timer("extract.parse");
+    private static final Timer PARSE_PARAGRAPHS = Metrics.timer("extract.parseParagraphs");
+    private static final Timer SEGMENT = Metrics.timer("extract.segment");
+
+    private static ContentHandler extractContent(InputStream is) throws SAXException, TikaException, IOException  {
         Metadata md = new Metadata();
-        BodyContentHandler handler = new BodyContentHandler();
+        WriteOutContentHandler text = new WriteOutContentHandler(Conf.instance().writeLimit());
+        try {
+            PARSER.parse(is, new BodyContentHandler(text), md);
+        } catch (SAXException e) {
+            // keep the text up to the write limit, like Tika#parseToString does
+            if (!text.isWriteLimitReached(e)) {
+                throw e;
+            }
+        }
+        return text;
+    }
 
-        InputStream is = TikaInputStream.get(new File(filePath).toPath());
-        parser.parse(is, handler, md);
-        return handler;
+    /**
+     * <p>Extract the plain text of a document using apache Tika.
+     *
+     * <p>This is the text both the index and the summarizer work on. The {@link ptuxiaki.indexing.Indexer}
+     * stores it in the index, so that documents already indexed are not parsed again
+     * when they are summarized, see {@link TextExtractor#extractParagraphs(String)}.
+     * At most {@link Conf#writeLimit()} characters are extracted.
+     * @param is the document
+     * @return the text of the document
+     */
+    public static String extractText(InputStream is) throws SAXException, TikaException, IOException {
+        final long start = PARSE.start();
+        try {
+            return extractContent(is).toString();
+        } finally {
+            PARSE.stop(start);
+        }
     }
 
     /**
@@ -83,26 +121,79 @@ public class TextExtractor {
         return sents.stream().filter(s->!s.isEmpty()).collect(Collectors.toList());
     }
 
-    public List<Paragraph> extractParagraphs() {
-        Pattern parSeparator = Pattern.compile("\\n");
-
-        String content;
-        try {
-            content = extractFileContent().toString();
+    /**
+     * <p>Parse the file set with {@link TextExtractor#setFile(String)} and pass each of its paragraphs
+     * to the consumer as soon as it is parsed.
+     *
+     * <p>The parser never holds the text of the file as a whole, only the paragraph being assembled.
+     * What is kept of the paragraphs is up to the consumer.
+     * @param paragraphs receives the paragraphs of the file in order.
+     * @return false if the file could not be parsed, the paragraphs parsed up to that point have been passed on.
+     */
+    public boolean extractParagraphs(final Consumer<Paragraph> paragraphs) {
+        final ParagraphAssembler assembler = new ParagraphAssembler(paragraphs);
+        final long start = PARSE_PARAGRAPHS.start();
+        try (InputStream is = TikaInputStream.get(new File(filePath).toPath())) {
+            PARSER.parse(is, new ParagraphContentHandler(assembler::addBlock), new Metadata());
+            return true;
         } catch (SAXException | TikaException | IOException e) {
             e.printStackTrace();
+            return false;
+        } finally {
+            PARSE_PARAGRAPHS.stop(start);
+        }
+    }
+
+    /**
+     * Parse the file set with {@link TextExtractor#setFile(String)} and split its text to paragraphs.
+     * @return the paragraphs of the file, or an empty list if the file can't be parsed.
+     */
+    public List<Paragraph> extractParagraphs() {
+        List<Paragraph> paragraphs = new ArrayList<>();
+        if (!extractParagraphs(paragraphs::add)) {
             return Collections.emptyList();
         }
-        String[] paragraphsBlocks = parSeparator.split(content);
-        int paragraphcount = (int) Arrays.stream(paragraphsBlocks).filter(s -> !s.isEmpty()).count();
-        List<Paragraph> paragraphs = new ArrayList<>(paragraphcount);
-        boolean titleNotFound = true;
-        int sentPos = 0;
-        int sentPosInPar = 0;
-        int paragraphCount = 0;
-        // For each paragraph block get the sentences and make a list of paragraph objects
-        for (String par : paragraphsBlocks) {
-            if (par.isEmpty()) continue;
+        return paragraphs;
+    }
+
+    /**
+     * Split the already extracted text of a document to paragraphs and each paragraph to sentences.
+     * @param content the text of the document as returned by {@link TextExtractor#extractText(InputStream)}
+     * @return the paragraphs of the document.
+     */
+    public List<Paragraph> extractParagraphs(final String content) {
+        final long start = SEGMENT.start();
+        Pattern parSeparator = Pattern.compile("\\n");
+        List<Paragraph> paragraphs = new ArrayList<>();
+        ParagraphAssembler assembler = new ParagraphAssembler(paragraphs::add);
+        for (String par : parSeparator.split(content)) {
+            assembler.addBlock(par);
+        }
+        SEGMENT.stop(start);
+        return paragraphs;
+    }
+
+    /**
+     * Turns the blocks of text of a document to {@link Paragraph} objects one at a time,
+     * keeping track of the position of each sentence and of whether the title has been found.
+     */
+    private class ParagraphAssembler {
+        private final Consumer<Paragraph> paragraphs;
+        private boolean titleNotFound = true;
+        private int sentPos = 0;
+        private int paragraphCount = 0;
+
+        ParagraphAssembler(final Consumer<Paragraph> paragraphs) {
+            this.paragraphs = paragraphs;
+        }
+
+        /**
+         * Get the sentences of a paragraph block and pass on the paragraph object.
+         * @param par a line of the document
+         */
+        void addBlock(final String par) {
+            if (par.isEmpty()) return;
+            int sentPosInPar = 0;
             List<String> sents = getSentencesFromParagraph(par);
             final Paragraph p = new Paragraph();
             // check for title subtitles etc
@@ -134,10 +225,8 @@ public class TextExtractor {
                 }
             }
             p.setPosition(paragraphCount++);
-            paragraphs.add(p);
-            sentPosInPar = 0;
+            paragraphs.accept(p);
         }
-        return paragraphs;
     }
 
     /**
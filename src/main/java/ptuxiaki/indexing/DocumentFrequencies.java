@@ -0,0 +1,83 @@
+package ptuxiaki.indexing;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.Term;
+import ptuxiaki.metrics.Counter;
+import ptuxiaki.metrics.Metrics;
+import ptuxiaki.utils.LuceneConstant;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>The document frequencies of the CONTENTS terms as seen by one version of the index.
+ *
+ * <p>The same few thousand stems repeat across every document of the corpus, so each one is
+ * looked up in the terms dictionary once and then answered from memory. The table is filled
+ * lazily and is bounded, once it holds {@code capacity} terms the rest are looked up every time.
+ * It is bound to the reader it was created for and must be replaced when the index changes,
+ * see {@link DocumentFrequencies#isFor(IndexReader)}.
+ *
+ * <p>Lookups can be done from several threads at once.
+ */
+class DocumentFrequencies {
+    private static final Counter HITS = Metrics.counter("docFreqCache.hits");
+    private static final Counter MISSES = Metrics.counter("docFreqCache.misses");
+
+    private final IndexReader reader;
+    private final int capacity;
+
+    /**
+     * term --> number of documents the term is present in
+     */
+    private final Map<String, Integer> docFreqs = new ConcurrentHashMap<>();
+
+    DocumentFrequencies(final IndexReader reader, final int capacity) {
+        this.reader = reader;
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param reader the reader a lookup is done with
+     * @return true if the frequencies are the ones of that reader
+     */
+    boolean isFor(final IndexReader reader) {
+        return this.reader == reader;
+    }
+
+    /**
+     * @param term the stemmed word
+     * @return the number of documents the term is present in
+     * @throws IOException
+     */
+    int docFreq(final String term) throws IOException {
+        Integer docFreq = docFreqs.get(term);
+        if (docFreq == null) {
+            MISSES.increment();
+            docFreq = reader.docFreq(new Term(LuceneConstant.CONTENTS, term));
+            if (docFreqs.size() < capacity) {
+                docFreqs.putIfAbsent(term, docFreq);
+            }
+        } else {
+            HITS.increment();
+        }
+        return docFreq;
+    }
+
+    /**
+     * @return the share of the lookups of every table answered from memory, counted only while metrics are enabled
+     */
+    static double hitRate() {
+        final long hits = HITS.count(), total = hits + MISSES.count();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    int numDocs() {
+        return reader.numDocs();
+    }
+
+    int size() {
+        return docFreqs.size();
+    }
+}
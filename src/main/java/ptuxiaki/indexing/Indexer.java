@@ -2,31 +2,52 @@ package ptuxiaki.indexing;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.el.GreekAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.BinaryDocValuesField;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.*;
-import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
-import org.apache.tika.Tika;
+import org.apache.lucene.util.IOUtils;
 import org.apache.tika.exception.TikaException;
-import org.apache.tika.metadata.Metadata;
 import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import ptuxiaki.Summarizer;
+import org.xml.sax.SAXException;
 import ptuxiaki.datastructures.Conf;
 import ptuxiaki.datastructures.Sentence;
+import ptuxiaki.datastructures.TermDictionary;
+import ptuxiaki.extraction.TextExtractor;
+import ptuxiaki.metrics.Counter;
+import ptuxiaki.metrics.Metrics;
+import ptuxiaki.metrics.Timer;
+import ptuxiaki.utils.CorpusWalker;
+import ptuxiaki.utils.ExecutorUtils;
 import ptuxiaki.utils.LuceneConstant;
 import ptuxiaki.utils.PropertyKey;
+import ptuxiaki.utils.Trace;
 import stemmer.MyGreekAnalyzer;
 
 import java.io.*;
+import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.*;
 
 import static java.lang.Math.log10;
 
@@ -34,181 +55,418 @@ import static java.lang.Math.log10;
 /**
  * <p>The class responsible for indexing a collection of documents, using Apache Lucene library.
  * <p>The class takes each file from the directory of document to index and it constructs a Lucene
- * {@link Document} object consisting of four fields
+ * {@link Document} object consisting of the fields
  * <ul>
- *     <li>UUID</li>
- *     <li>FILE_NAME</li>
  *     <li>FILE_PATH</li>
+ *     <li>FILE_NAME</li>
  *     <li>CONTENT</li>
+ *     <li>CONTENT_HASH</li>
+ *     <li>FILE_SIZE</li>
+ *     <li>LAST_MODIFIED</li>
+ *     <li>TOTAL_TERM_FREQ, the number of terms of the content</li>
  * </ul>
  * and then adds that object to index. The content extraction is achieved using apache Tika library.
  *
+ * <p>Indexing is incremental. Documents are keyed by their absolute path, so indexing a directory
+ * again only adds the new files, replaces the modified ones and removes the ones that were deleted.
+ * A file is considered unmodified when its size and modification time are the ones indexed, or
+ * when its content hash is.
+ *
  * <p>Besides indexing the documents it also provides method to acquire the values stored in the
  * index, such as tf and idf weights.
  *
  * <p>The index files generated is saved to a predefined directory which is $HOME/index, unless specified
  * otherwise.
  */
-public class Indexer {
-    private static final Logger LOG = LoggerFactory.getLogger(Summarizer.class);
+public class Indexer implements Closeable {
+    private static final Logger TRACE = Trace.logger();
 
     private static final String DEFAULT_INDEX_DIR = System.getProperty("user.home") + File.separator + "index";
+    // written by older versions to hold the term totals, now they are in the index
     private static final String TERM_FREQ_DOC_TFD = "termFreqDoc.tfd";
 
+    /**
+     * Written in the commit data of the index. Indexes of another format are built again.
+     */
+    private static final String INDEX_FORMAT = "3";
+    private static final String FORMAT_KEY = "format";
+
+    private static final Timer INDEX_DIRECTORY = Metrics.timer("index.directory");
+    private static final Timer INDEX_DOCUMENT = Metrics.timer("index.document");
+    private static final Counter INDEXED_DOCUMENTS = Metrics.counter("index.documents");
+    private static final Counter SKIPPED_DOCUMENTS = Metrics.counter("index.unchanged");
+    private static final Timer TF = Metrics.timer("lookup.tf");
+    private static final Timer IDF = Metrics.timer("lookup.idf");
+    private static final Timer ANALYZE = Metrics.timer("lookup.analyze");
+
+    static {
+        Metrics.gauge("docFreqCache.hitRate", DocumentFrequencies::hitRate);
+    }
+
     // configuration for lucene index
-    private final FieldType INDEX_STORED_ANALYZED = new FieldType();
+    // the contents are analyzed before they are indexed so they are stored in a separate field.
+    // Only the term frequencies are needed, no positions or offsets.
+    private final FieldType INDEX_ANALYZED_VECTORS = new FieldType();
 
     private String indexDirectory;
     private boolean indexExists;
 
+    private Directory directory;
+    private Analyzer analyzer;
+
     // total number of documents in index
     private int docNum = 0;
 
     // for indexing
     /**
-     * Configuration for indexWriter
-     */
-    private IndexWriterConfig iwc;
-    /**
-     * The actual 'index' object where the information are stored
+     * The actual 'index' object where the information are stored.
+     * It is opened by {@link Indexer#writer(IndexWriterConfig.OpenMode)} when there is something to index
+     * and closed when indexing is done, so that it does not hold the index lock while summarizing.
      */
     private IndexWriter index;
     /**
-     * Used to read and retrieve information from a lucene index
+     * Used to read and retrieve information from a lucene index.
+     * It keeps one reader open for the life of the indexer, shared by all the threads
+     * that do lookups, and it is refreshed after each indexing commit.
+     * See {@link Indexer#acquireReader()}.
      */
-    private IndexReader reader;
+    private volatile ReaderManager readers;
 
     /**
-     * For each document hold the sum of all its term frequency
+     * The document frequencies of the current reader
      */
-    private long [] totalTermFreqDoc;
+    private volatile DocumentFrequencies docFreqs;
 
     /**
-     *
+     * How many terms {@code docFreqs} holds at most
      */
-    private boolean totalTermFreqFileExists;
+    private final int docFreqCacheSize;
 
-    // for pdf content extraction
-    private Metadata metadata;
-    private Tika tika;
+    /**
+     * Number of threads parsing and analyzing documents while indexing
+     */
+    private final int indexThreads;
 
+    /**
+     * The RAM buffer of the index writer in MB
+     */
+    private final double ramBufferSize;
 
     /**
-     * This method is used to initialize and configure the indexWriter object.
-     * @param analyzer {@link GreekAnalyzer} if we are using lucene stemmer {@link MyGreekAnalyzer} otherwise
-     * @throws IOException
+     * Merge the index down to that many segments after indexing, 0 to leave it to the merge policy
      */
-    private void setUp(Analyzer analyzer) throws IOException {
-        INDEX_STORED_ANALYZED.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS);
-        INDEX_STORED_ANALYZED.setStored(true);
-        INDEX_STORED_ANALYZED.setTokenized(true);
-        INDEX_STORED_ANALYZED.setStoreTermVectors(true);
-        // lock the configuration
-        INDEX_STORED_ANALYZED.freeze();
+    private final int forceMergeSegments;
 
-        this.iwc = new IndexWriterConfig(analyzer);
-        if (!Files.exists(Paths.get(indexDirectory), LinkOption.NOFOLLOW_LINKS)) {
-            this.iwc.setOpenMode(IndexWriterConfig.OpenMode.CREATE);
-            this.indexExists = false;
-        } else {
-            this.iwc.setOpenMode(IndexWriterConfig.OpenMode.APPEND);
-            this.indexExists = true;
+    /**
+     * What is indexed for a file in order to tell if it changed since.
+     */
+    private static final class IndexedFile {
+        final long size;
+        final long lastModified;
+        final String hash;
+
+        IndexedFile(final long size, final long lastModified, final String hash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
         }
-
-        this.index = new IndexWriter(FSDirectory.open(Paths.get(indexDirectory)), iwc);
-
-        this.metadata = new Metadata();
-        this.tika = new Tika();
     }
 
     /**
-     * Saves the {@code totalTermFreq} array to disk using java serialization API.
+     * This method is used to configure the fields and the analyzer of the index.
+     * @param analyzer {@link GreekAnalyzer} if we are using lucene stemmer {@link MyGreekAnalyzer} otherwise
      * @throws IOException
      */
-    private void saveToFile() throws IOException {
-        ObjectOutputStream objStream = new ObjectOutputStream(new FileOutputStream(indexDirectory + File.separator + TERM_FREQ_DOC_TFD));
-        objStream.writeObject(totalTermFreqDoc);
-        objStream.close();
-        totalTermFreqFileExists = true;
+    private void setUp(Analyzer analyzer) throws IOException {
+        INDEX_ANALYZED_VECTORS.setIndexOptions(IndexOptions.DOCS_AND_FREQS);
+        INDEX_ANALYZED_VECTORS.setTokenized(true);
+        INDEX_ANALYZED_VECTORS.setStoreTermVectors(true);
+        // lock the configuration
+        INDEX_ANALYZED_VECTORS.freeze();
+
+        this.analyzer = analyzer;
+        this.indexExists = Files.exists(Paths.get(indexDirectory), LinkOption.NOFOLLOW_LINKS);
+        // the index is mostly read while summarizing, map it in memory
+        this.directory = new MMapDirectory(Paths.get(indexDirectory));
+        this.indexExists = indexExists && DirectoryReader.indexExists(directory);
     }
 
     /**
-     * Restore the {@code totalTermFreq} from the disk.
-     * This method is called only when the index directory exists.
+     * Get the index writer, opening it if it is not open.
+     * @param mode how to open the index, used only if the writer is not open already
+     * @return
      * @throws IOException
      */
-    private void restoreFromFile() throws IOException {
-        try (ObjectInputStream objectInputStream = new ObjectInputStream(new FileInputStream(indexDirectory + File.separator + TERM_FREQ_DOC_TFD))) {
-            totalTermFreqDoc = (long []) objectInputStream.readObject();
-        } catch (ClassNotFoundException e) {
-            e.printStackTrace();
+    private IndexWriter writer(final IndexWriterConfig.OpenMode mode) throws IOException {
+        if (index == null) {
+            final IndexWriterConfig iwc = new IndexWriterConfig(analyzer);
+            iwc.setOpenMode(mode);
+            // flush by RAM usage only, the parser threads share the buffer
+            iwc.setRAMBufferSizeMB(ramBufferSize);
+            iwc.setMaxBufferedDocs(IndexWriterConfig.DISABLE_AUTO_FLUSH);
+            index = new IndexWriter(directory, iwc);
         }
-        totalTermFreqFileExists = true;
+        return index;
     }
 
     /**
-     * Due to how nnkstemmer works it also does some word filtering.
+     * Count the terms of a document while it is indexed, into the value of a doc values field.
+     * The field has to come after the analyzed one in the document: the fields are indexed in order,
+     * so its value is read once every token has been counted, without buffering the tokens.
+     *
+     * <p>Due to how nnkstemmer works it also does some word filtering.
      * It works as an filter as well.
      * This doesn't get along with Lucene which has the two concepts separate.
      * First is the filtering through the use of stopword.txt files
      * and then the stemming of the remaining words which is done through
      * language specific stemmers.
-     * As a result printStatistics reports a total term frequency lower than
-     * what Lucene is using internally.
-     *
+     * As a result the filtered words come out as empty terms, which are not counted, and
+     * printStatistics reports a total term frequency lower than what Lucene is using internally.
      */
-    private void computeSumTermFreqByDoc() {
-        this.totalTermFreqDoc = new long[docNum];
-        try {
-            openReader();
-            BytesRef txt;
-            for (int i = 0; i < docNum; i++) {
-                Terms termVector = reader.getTermVector(i, LuceneConstant.CONTENTS);
-                TermsEnum itr = termVector.iterator();
-                PostingsEnum postings = null;
-                while ((txt = itr.next()) != null) {
-                    if (txt.length == 0) continue;
-                    postings = itr.postings(postings, PostingsEnum.FREQS);
-                    postings.nextDoc();
-                    totalTermFreqDoc[i] += postings.freq();
-                }
+    private static final class TermCounter extends TokenFilter {
+        private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+        private final Field total;
+        private long count;
+
+        /**
+         * @param input the analyzed content
+         * @param total the field receiving the number of non empty terms
+         */
+        TermCounter(final TokenStream input, final Field total) {
+            super(input);
+            this.total = total;
+        }
+
+        @Override
+        public boolean incrementToken() throws IOException {
+            if (!input.incrementToken()) {
+                return false;
             }
-            closeReader();
-            saveToFile();
-        } catch (IOException e) {
-            e.printStackTrace();
+            if (termAtt.length() > 0) {
+                total.setLongValue(++count);
+            }
+            return true;
         }
 
+        @Override
+        public void reset() throws IOException {
+            super.reset();
+            count = 0;
+            total.setLongValue(0);
+        }
     }
 
     /**
      * Construct a {@link Document} object from the file content, name and path add it to index
+     * @param writer the writer to add the document with
      * @param file A file in natural language
+     * @param path the key of the document, see {@link Indexer#pathKey(Path)}
+     * @param current the size, modification time and hash of the file
+     * @param replace true if there is an older version of the document in the index
      */
-    private void addDocument(final File file) {
+    private void addDocument(final IndexWriter writer, final File file, final String path,
+                             final IndexedFile current, final boolean replace) {
         Document doc = new Document();
+        TokenStream tokens = null;
+        final long start = INDEX_DOCUMENT.start();
         try (InputStream stream = new FileInputStream(file)) {
-            doc.add(new StringField(LuceneConstant.DOC_ID, UUID.randomUUID().toString(), Field.Store.NO));
-            doc.add(new Field(LuceneConstant.CONTENTS, tika.parseToString(stream, metadata), INDEX_STORED_ANALYZED));
-            doc.add(new Field(LuceneConstant.FILE_PATH, file.getPath(), INDEX_STORED_ANALYZED));
-            doc.add(new Field(LuceneConstant.FILE_NAME, file.getName(), INDEX_STORED_ANALYZED));
-            if (iwc.getOpenMode().equals(IndexWriterConfig.OpenMode.CREATE)) {
-                index.addDocument(doc);
-                System.out.printf("\tIndexing file %s%n", file.getName());
-            } else {
-                index.updateDocument(new Term("uuid"), doc);
+            final String contents = TextExtractor.extractText(stream);
+            final Field totalTermFreq = new NumericDocValuesField(LuceneConstant.TOTAL_TERM_FREQ, 0);
+            tokens = new TermCounter(analyzer.tokenStream(LuceneConstant.CONTENTS, contents), totalTermFreq);
+            doc.add(new StringField(LuceneConstant.FILE_PATH, path, Field.Store.YES));
+            doc.add(new BinaryDocValuesField(LuceneConstant.FILE_PATH, new BytesRef(path)));
+            // the writer closes the token stream once the field is indexed
+            doc.add(new Field(LuceneConstant.CONTENTS, tokens, INDEX_ANALYZED_VECTORS));
+            doc.add(new StoredField(LuceneConstant.CONTENTS, contents));
+            // after the contents, see TermCounter
+            doc.add(totalTermFreq);
+            doc.add(new StringField(LuceneConstant.FILE_NAME, file.getName(), Field.Store.YES));
+            doc.add(new BinaryDocValuesField(LuceneConstant.CONTENT_HASH, new BytesRef(current.hash)));
+            doc.add(new NumericDocValuesField(LuceneConstant.FILE_SIZE, current.size));
+            doc.add(new NumericDocValuesField(LuceneConstant.LAST_MODIFIED, current.lastModified));
+            if (replace) {
+                writer.updateDocument(new Term(LuceneConstant.FILE_PATH, path), doc);
                 System.out.printf("\tUpdating file %s%n", file.getName());
+            } else {
+                writer.addDocument(doc);
+                System.out.printf("\tIndexing file %s%n", file.getName());
             }
-        } catch (IOException | TikaException e) {
+            INDEXED_DOCUMENTS.increment();
+        } catch (IOException | TikaException | SAXException e) {
+            IOUtils.closeWhileHandlingException(tokens);
             e.printStackTrace();
+        } finally {
+            INDEX_DOCUMENT.stop(start);
+        }
+    }
+
+    /**
+     * Index a file that is new or whose size or modification time changed.
+     * Called from the parser threads of {@link Indexer#indexDirectory(String)}.
+     * A file that can't be read is reported and skipped, whatever is indexed for it is kept.
+     * @param writer the writer to add the document with
+     * @param file the file to index
+     * @param path the key of the document
+     * @param previous what is indexed for the file, null if it is a new one
+     * @param size the size of the file
+     * @param lastModified the modification time of the file
+     * @throws IOException if the index can't be written
+     */
+    private void indexFile(final IndexWriter writer, final File file, final String path,
+                           final IndexedFile previous, final long size, final long lastModified) throws IOException {
+        final IndexedFile current;
+        try {
+            current = new IndexedFile(size, lastModified, contentHash(file));
+        } catch (IOException e) {
+            System.err.printf("Cannot read %s: %s%n", file, e);
+            return;
+        }
+        if (previous != null && previous.hash.equals(current.hash)) {
+            // touched but not modified, keep the new time so that it is not hashed again
+            writer.updateNumericDocValue(new Term(LuceneConstant.FILE_PATH, path), LuceneConstant.LAST_MODIFIED, current.lastModified);
+            return;
+        }
+        addDocument(writer, file, path, current, previous != null);
+    }
+
+    /**
+     * Wait for a file to be indexed by a parser thread.
+     * @param task
+     * @throws IOException if indexing the file failed
+     */
+    private static void await(final Future<Void> task) throws IOException {
+        try {
+            task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while indexing");
+        }
+    }
+
+    /**
+     * The key a file is indexed with, its absolute normalized path.
+     * @param file
+     * @return
+     */
+    private static String pathKey(final Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Compute the SHA-256 of the file content.
+     * @param file
+     * @return the hash as a hex string
+     * @throws IOException
+     */
+    private static String contentHash(final File file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
+        try (InputStream stream = new DigestInputStream(new FileInputStream(file), digest)) {
+            final byte[] buffer = new byte[8192];
+            while (stream.read(buffer) != -1) {
+                // the digest is updated while reading
+            }
+        }
+        return String.format("%064x", new BigInteger(1, digest.digest()));
+    }
+
+    /**
+     * Read what is indexed for the documents under {@code root}.
+     * @param root the key of the directory being indexed
+     * @return path --> {@link IndexedFile} or null if the index was written in another format
+     * by an older version.
+     * @throws IOException
+     */
+    private Map<String, IndexedFile> indexedFiles(final String root) throws IOException {
+        final Map<String, IndexedFile> files = new HashMap<>();
+        if (!indexExists) {
+            return files;
+        }
+        final DirectoryReader reader = acquireReader();
+        try {
+            if (reader.numDocs() == 0) {
+                return files;
+            }
+            if (!INDEX_FORMAT.equals(reader.getIndexCommit().getUserData().get(FORMAT_KEY))) {
+                return null;
+            }
+            final BinaryDocValues paths = MultiDocValues.getBinaryValues(reader, LuceneConstant.FILE_PATH);
+            final BinaryDocValues hashes = MultiDocValues.getBinaryValues(reader, LuceneConstant.CONTENT_HASH);
+            final NumericDocValues sizes = MultiDocValues.getNumericValues(reader, LuceneConstant.FILE_SIZE);
+            final NumericDocValues mtimes = MultiDocValues.getNumericValues(reader, LuceneConstant.LAST_MODIFIED);
+            final Bits liveDocs = MultiFields.getLiveDocs(reader);
+            final String prefix = root.endsWith(File.separator) ? root : root + File.separator;
+            for (int doc = 0; doc < reader.maxDoc(); doc++) {
+                if (liveDocs != null && !liveDocs.get(doc)) continue;
+                final String path = paths.get(doc).utf8ToString();
+                if (path.equals(root) || path.startsWith(prefix)) {
+                    files.put(path, new IndexedFile(sizes.get(doc), mtimes.get(doc), hashes.get(doc).utf8ToString()));
+                }
+            }
+            return files;
+        } finally {
+            releaseReader(reader);
+        }
+    }
+
+    /**
+     * Get a reference to the current index reader.
+     * Every call must be paired with a call to {@link Indexer#releaseReader(DirectoryReader)}.
+     * The reader is opened on the first call, after that no file system work is done
+     * until the index changes.
+     * @return the shared reader
+     * @throws IOException
+     */
+    private DirectoryReader acquireReader() throws IOException {
+        ReaderManager manager = readers;
+        if (manager == null) {
+            manager = openReaders();
+        }
+        return manager.acquire();
+    }
+
+    private synchronized ReaderManager openReaders() throws IOException {
+        if (readers == null) {
+            readers = new ReaderManager(directory);
+        }
+        return readers;
+    }
+
+    /**
+     * Release a reference acquired by {@link Indexer#acquireReader()}.
+     * A reader replaced by a refresh is closed when its last reference is released.
+     * @param reader
+     * @throws IOException
+     */
+    private void releaseReader(DirectoryReader reader) throws IOException {
+        readers.release(reader);
     }
 
-    private boolean openReader() throws IOException {
-        if (reader == null || reader.getRefCount() <= 0) {
-            reader = DirectoryReader.open(FSDirectory.open(Paths.get(indexDirectory)));
+    /**
+     * Make the lookups see the last commit. Readers acquired before keep
+     * working on the previous version of the index until they are released.
+     * @throws IOException
+     */
+    private void refreshReader() throws IOException {
+        final ReaderManager manager = readers;
+        if (manager != null) {
+            manager.maybeRefreshBlocking();
+        }
+        final DirectoryReader reader = acquireReader();
+        try {
+            docNum = reader.numDocs();
+        } finally {
+            releaseReader(reader);
         }
-        return reader != null;
     }
 
     /**
@@ -227,22 +485,30 @@ public class Indexer {
      */
     public Indexer(final String directory) throws IOException {
         this.indexDirectory = directory;
+        this.docFreqCacheSize = Conf.instance().docFreqCacheSize();
+        this.indexThreads = Conf.instance().indexThreads();
+        this.ramBufferSize = Conf.instance().ramBufferSize();
+        this.forceMergeSegments = Conf.instance().forceMergeSegments();
         if (Conf.instance().stemmerClass().equals(PropertyKey.NNKSTEMER)) {
             setUp(new MyGreekAnalyzer());
         } else {
             setUp(new GreekAnalyzer());
         }
         if (indexExists()) {
-            restoreFromFile();
-            docNum = index.numDocs();
+            refreshReader();
         }
-        totalTermFreqFileExists = false;
     }
 
     /**
      * <p>Do the actual indexing.
-     * <p>Traverse the specified directory and for each file call {@link Indexer#addDocument(File)}.
-     * Avoid indexing hidden files or any other non text files such as .lock and .class files
+     * <p>Traverse the specified directory and bring the index up to date with the files in it.
+     * New files are added with {@link Indexer#addDocument(IndexWriter, File, String, IndexedFile, boolean)},
+     * modified files replace their previous version and files that are no longer in the directory
+     * are removed from the index. Unmodified files are not read at all.
+     * The files are parsed and analyzed by {@link Conf#indexThreads()} threads that share
+     * the index writer, and everything is committed once at the end.
+     * The files are picked by {@link CorpusWalker#of(Path)}, by default hidden files or any other
+     * non text files such as .lock and .class files are not indexed.
      *
      * <p>After this method is called and returns successfully all the documents that were
      * indexed and their information are stored inside the index files and can be retrieved by
@@ -251,36 +517,99 @@ public class Indexer {
      * @return true if the indexing of the directory was successful.
      * @throws IOException
      */
-    public boolean indexDirectory(String directory) throws IOException {
-        File dir = new File(directory);
-        System.out.printf("Indexing directory %s%n", dir.getName());
+    public synchronized boolean indexDirectory(String directory) throws IOException {
+        final Path dir = Paths.get(directory);
+        System.out.printf("Indexing directory %s%n", dir.getFileName());
+        if (!Files.isDirectory(dir)) {
+            // the directory we opened has no files for indexing
+            System.err.printf("Cannot read directory %s%n", dir);
+            return false;
+        }
+
+        final String root = pathKey(dir);
+        Map<String, IndexedFile> indexedFiles = indexedFiles(root);
+        IndexWriterConfig.OpenMode mode = IndexWriterConfig.OpenMode.CREATE_OR_APPEND;
+        if (indexedFiles == null) {
+            // written by an older version, there is no way to update it
+            System.out.println("The index was written by an older version, indexing everything again.");
+            mode = IndexWriterConfig.OpenMode.CREATE;
+            indexedFiles = new HashMap<>();
+            Files.deleteIfExists(Paths.get(indexDirectory, TERM_FREQ_DOC_TFD));
+        }
+        final Map<String, IndexedFile> indexed = indexedFiles;
+        final long start = INDEX_DIRECTORY.start();
+
+        final ExecutorService pool = indexThreads > 1 ? Executors.newFixedThreadPool(indexThreads) : null;
+        final Deque<Future<Void>> pending = new ArrayDeque<>();
+        boolean committed = false;
         try {
-            // dir.listFiles may throw NullPointerException
-            for (File f : dir.listFiles()) {
-                if (f.isDirectory()) {
-                    indexDirectory(f.getPath());
-                    continue;
+            final IndexWriter writer = writer(mode);
+            final CorpusWalker walker = CorpusWalker.of(dir);
+            walker.walk(file -> {
+                final File f = file.toFile();
+                final String path = pathKey(file);
+                final IndexedFile previous = indexed.remove(path);
+                final long size = f.length();
+                final long lastModified = f.lastModified();
+                if (previous != null && previous.size == size && previous.lastModified == lastModified) {
+                    SKIPPED_DOCUMENTS.increment();
+                    return;
                 }
-
-                // don't index hidden files for example .directory files on kde dolphin
-                // or files that are not pdf or txt
-                if (f.isHidden() || f.getName().endsWith("lock") || f.getName().endsWith("class")) {
-                    continue;
+                if (pool == null) {
+                    indexFile(writer, f, path, previous, size, lastModified);
+                    return;
                 }
-                addDocument(f);
+                pending.add(pool.submit(() -> {
+                    indexFile(writer, f, path, previous, size, lastModified);
+                    return null;
+                }));
+                if (pending.size() >= 2 * indexThreads) {
+                    await(pending.poll());
+                }
+            });
+            while (!pending.isEmpty()) {
+                await(pending.poll());
             }
-            index.commit();
-            this.indexExists = true;
-            System.out.printf("Indexing of %s directory completed!%n", dir.getName());
-        } catch (NullPointerException | IOException e) {
-            // the directory we opened has no files for indexing
-            e.printStackTrace();
-            this.indexExists = false;
-            return false;
+            if (walker.failures() == 0) {
+                // whatever is left was not found in the directory
+                for (String path : indexed.keySet()) {
+                    writer.deleteDocuments(new Term(LuceneConstant.FILE_PATH, path));
+                    System.out.printf("\tRemoving file %s%n", path);
+                }
+            } else {
+                // they may be in the part of the directory that could not be read
+                System.err.println("Some files could not be read, no documents are removed from the index.");
+            }
+            if (forceMergeSegments > 0) {
+                writer.forceMerge(forceMergeSegments);
+            }
+            writer.setCommitData(Collections.singletonMap(FORMAT_KEY, INDEX_FORMAT));
+            writer.commit();
+            committed = true;
+        } finally {
+            if (pool != null) {
+                // don't interrupt the parser threads, an interrupt can close the files the writer is using.
+                // Drop the files that are not parsed yet and wait for the rest, so that nothing is added
+                // while the writer is closed or rolled back.
+                pending.forEach(task -> task.cancel(false));
+                pool.shutdown();
+                ExecutorUtils.awaitTermination(pool);
+            }
+            if (index != null) {
+                if (committed) {
+                    index.close();
+                } else {
+                    // close() commits, keep the last complete commit instead of a half built index
+                    index.rollback();
+                }
+                index = null;
+            }
+            INDEX_DIRECTORY.stop(start);
         }
-        docNum = index.numDocs();
-        index.close();
-        computeSumTermFreqByDoc();
+        this.indexExists = true;
+        System.out.printf("Indexing of %s directory completed!%n", dir.getFileName());
+
+        refreshReader();
         return true;
     }
 
@@ -288,6 +617,13 @@ public class Indexer {
         return indexExists;
     }
 
+    /**
+     * @return the number of documents in the index
+     */
+    public int numDocs() {
+        return docNum;
+    }
+
     /**
      * Compute the frequency of a term in the given document.
      * The calculation is performed according to equation (3)
@@ -297,26 +633,27 @@ public class Indexer {
      * @return
      */
     public double tf(final String term, final int docId) {
-        int freq = 0;
+        long freq = 0;
+        long total = 0;
         try {
-            openReader();
-            Terms termVector = reader.getTermVector(docId, LuceneConstant.CONTENTS);
-            TermsEnum itr = termVector.iterator();
-            PostingsEnum postings = null;
-            BytesRef termText = itr.next();
-            while (termText != null) {
-                if (term.equals(termText.utf8ToString())) {
-                    postings = itr.postings(postings, PostingsEnum.FREQS);
-                    postings.nextDoc();
-                    freq = postings.freq();
+            final DirectoryReader reader = acquireReader();
+            try {
+                Terms termVector = reader.getTermVector(docId, LuceneConstant.CONTENTS);
+                TermsEnum itr = termVector.iterator();
+                if (itr.seekExact(new BytesRef(term))) {
+                    freq = itr.totalTermFreq();
+                }
+                final NumericDocValues totals = MultiDocValues.getNumericValues(reader, LuceneConstant.TOTAL_TERM_FREQ);
+                if (totals != null) {
+                    total = totals.get(docId);
                 }
-                termText = itr.next();
+            } finally {
+                releaseReader(reader);
             }
-            closeReader();
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return (double) freq / totalTermFreqDoc[docId];
+        return (double) freq / total;
     }
 
     /**
@@ -324,43 +661,150 @@ public class Indexer {
      * The calculation is performed according to equation (3)
      * presented <a href="file:///home/denis/Documents/bachelor_thesis/papers/B33.pdf">here</a>
      *
+     * <p>This builds the whole term frequency table of the document on each call. When many
+     * terms of the same document are needed use {@link Indexer#termFrequencies(Path)} once instead.
+     *
      * @param term the stemmed word
-     * @param fileName the document file name to search in
+     * @param file the document to search in
      * @return
      */
-    public double tf(final String term, final String fileName) {
-        long freq = 0;
-        int termDoc = 0;
+    public double tf(final String term, final Path file) {
+        return termFrequencies(file).tf(term);
+    }
+
+    /**
+     * <p>Build the term frequency table of the given document from its term vector.
+     *
+     * <p>The table is meant to be built once per summarized document and then queried for
+     * every word of every sentence of it.
+     * @param file the document, as it was found under the indexed directory
+     * @return the {@link TermFrequencies} of the document or {@link TermFrequencies#EMPTY}
+     * if there is no such document in the index.
+     */
+    public TermFrequencies termFrequencies(final Path file) {
+        final long start = TF.start();
+        try {
+            final DirectoryReader reader = acquireReader();
+            try {
+                final Integer docId = docId(reader, file);
+                final Terms terms = docId == null ? null : reader.getTermVector(docId, LuceneConstant.CONTENTS);
+                if (terms == null) {
+                    return TermFrequencies.EMPTY;
+                }
+                final Map<String, Integer> freqs = new HashMap<>((int) Math.max(16, terms.size() * 4 / 3 + 1));
+                long total = 0;
+                TermsEnum itr = terms.iterator();
+                BytesRef text;
+                while ((text = itr.next()) != null) {
+                    if (text.length == 0) continue;
+                    final int freq = (int) itr.totalTermFreq();
+                    freqs.put(text.utf8ToString(), freq);
+                    total += freq;
+                }
+                return new TermFrequencies(freqs, total);
+            } finally {
+                releaseReader(reader);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return TermFrequencies.EMPTY;
+        } finally {
+            TF.stop(start);
+        }
+    }
+
+    /**
+     * <p>Build the term frequency table of a text that is not in the index.
+     *
+     * <p>The text is analyzed the same way the documents are when they are indexed, so the table
+     * is the one {@link Indexer#termFrequencies(Path)} returns once the same text is indexed.
+     * @param contents the text of a document
+     * @return the {@link TermFrequencies} of the text
+     */
+    public TermFrequencies analyze(final String contents) {
+        return analyze(Collections.singletonList(contents));
+    }
+
+    /**
+     * <p>Build the term frequency table of a document that is not in the index from the pieces of its text,
+     * such as the sentences of its paragraphs as they are parsed, without joining them to a single string.
+     *
+     * <p>The pieces are analyzed one after the other and their terms are counted together, so the table is
+     * the one of their concatenation as long as they are split between words.
+     * @param contents the pieces of the text of a document
+     * @return the {@link TermFrequencies} of the text
+     * @see Indexer#analyze(String)
+     */
+    public TermFrequencies analyze(final Iterable<String> contents) {
+        final Map<String, Integer> freqs = new HashMap<>();
+        long total = 0;
+        final long start = ANALYZE.start();
         try {
-            openReader();
-            boolean done = false;
-            // the docId the term was found on
-            termDoc = -1;
-            for (int doc = 0; doc < reader.numDocs() && !done; doc++) {
-                final String docName = reader.document(doc).get(LuceneConstant.FILE_NAME);
-                if (fileName.equals(docName)) {
-                    Terms terms = reader.getTermVector(doc, LuceneConstant.CONTENTS);
-                    TermsEnum itr = terms.iterator();
-                    BytesRef text = null;
-                    while ((text = itr.next()) != null) {
-                        if (text.utf8ToString().equals(term)) {
-                            // the term frequency of the term in the document
-                            freq = itr.totalTermFreq();
-                            done = true;
-                            termDoc = doc;
-                            break;
-                        }
+            for (String text : contents) {
+                try (TokenStream tokens = analyzer.tokenStream(LuceneConstant.CONTENTS, text)) {
+                    final CharTermAttribute termAtt = tokens.addAttribute(CharTermAttribute.class);
+                    tokens.reset();
+                    while (tokens.incrementToken()) {
+                        if (termAtt.length() == 0) continue;
+                        freqs.merge(termAtt.toString(), 1, Integer::sum);
+                        total++;
                     }
+                    tokens.end();
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return TermFrequencies.EMPTY;
+        } finally {
+            ANALYZE.stop(start);
+        }
+        return new TermFrequencies(freqs, total);
+    }
+
+    /**
+     * Get the text of a document as it was extracted when it was indexed.
+     * @param file the document, as it was found under the indexed directory
+     * @return the text of the document or null if there is no such document in the index.
+     */
+    public String storedContents(final Path file) {
+        try {
+            final DirectoryReader reader = acquireReader();
+            try {
+                final Integer docId = docId(reader, file);
+                if (docId == null) {
+                    return null;
                 }
+                return reader.document(docId, Collections.singleton(LuceneConstant.CONTENTS)).get(LuceneConstant.CONTENTS);
+            } finally {
+                releaseReader(reader);
             }
-            closeReader();
         } catch (IOException e) {
             e.printStackTrace();
+            return null;
         }
-        if (termDoc == -1) {
-            return (double) freq;
+    }
+
+    /**
+     * Resolve the lucene document id of a file by looking its {@link Indexer#pathKey(Path)} up in the FILE_PATH
+     * keyword field. Files with the same name in different directories are different documents.
+     * @param reader the reader to resolve the path with
+     * @param file the document
+     * @return the document id or null if there is no such document in the index.
+     * @throws IOException
+     */
+    private static Integer docId(final IndexReader reader, final Path file) throws IOException {
+        final PostingsEnum docs = MultiFields.getTermDocsEnum(reader, LuceneConstant.FILE_PATH, new BytesRef(pathKey(file)), PostingsEnum.NONE);
+        if (docs == null) {
+            return null;
         }
-        return (double) freq / totalTermFreqDoc[termDoc];
+        // the postings include the documents deleted but not merged away yet
+        final Bits liveDocs = MultiFields.getLiveDocs(reader);
+        for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
+            if (liveDocs == null || liveDocs.get(doc)) {
+                return doc;
+            }
+        }
+        return null;
     }
 
     /**
@@ -371,15 +815,59 @@ public class Indexer {
      * @return
      */
     public double idf(final String term) {
-        int docFreq = 0;
+        return idf(Collections.singletonList(term))[0];
+    }
+
+    /**
+     * Compute the inverse document frequency of many terms with a single reader acquisition.
+     * The document frequencies come from the corpus wide cache, see {@link DocumentFrequencies}.
+     * Without an index the corpus is empty and every term has an idf of 0.
+     * @param terms the stemmed words
+     * @return the idf of each term in the iteration order of {@code terms}
+     */
+    public double[] idf(final Collection<String> terms) {
+        final double[] idfs = new double[terms.size()];
+        int numDocs = docNum;
+        int i = 0;
+        final long start = IDF.start();
         try {
-            openReader();
-            docFreq = reader.docFreq(new Term(LuceneConstant.CONTENTS, term));
-            closeReader();
+            final DirectoryReader reader = acquireReader();
+            try {
+                final DocumentFrequencies dfs = documentFrequencies(reader);
+                numDocs = dfs.numDocs();
+                for (String term : terms) {
+                    idfs[i++] = log10((double) numDocs / (dfs.docFreq(term) + 1));
+                }
+            } finally {
+                releaseReader(reader);
+            }
+        } catch (IndexNotFoundException e) {
+            // nothing is indexed yet, the corpus is empty
+            numDocs = 0;
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return log10((double) docNum / (docFreq + 1));
+        // terms that could not be looked up count as not present,
+        // in a corpus of at least one document so that the idf stays finite
+        for (; i < idfs.length; i++) {
+            idfs[i] = log10(Math.max(1, numDocs));
+        }
+        IDF.stop(start);
+        return idfs;
+    }
+
+    /**
+     * Get the document frequency cache of a reader, replacing the one of an older reader.
+     * @param reader
+     * @return
+     */
+    private DocumentFrequencies documentFrequencies(final IndexReader reader) {
+        DocumentFrequencies dfs = docFreqs;
+        if (dfs == null || !dfs.isFor(reader)) {
+            dfs = new DocumentFrequencies(reader, docFreqCacheSize);
+            docFreqs = dfs;
+        }
+        return dfs;
     }
 
     /**
@@ -388,21 +876,53 @@ public class Indexer {
      * @param file the document where the sentence exists
      * @return
      */
-    public double assignSentenceWeight(final Sentence sentence, String file)  {
+    public double assignSentenceWeight(final Sentence sentence, final Path file)  {
+        return assignSentenceWeight(sentence, termFrequencies(file));
+    }
+
+    /**
+     * Compute the inverse document frequency of every term of a document's dictionary at once.
+     * @param dictionary the term dictionary of the document
+     * @return the idf of each term, indexed by term id
+     */
+    public double[] idf(final TermDictionary dictionary) {
+        return idf(dictionary.terms());
+    }
+
+    /**
+     * Calculate the tfIdf value for a sentence object.
+     * @param sentence the sentence to update
+     * @param termFreqs the term frequency table of the document where the sentence exists
+     * @return
+     */
+    public double assignSentenceWeight(final Sentence sentence, final TermFrequencies termFreqs)  {
         double tfIdf = 0;
-        LOG.info(String.format("sentence: %s tfIdf: %f", sentence, tfIdf));
+        if (TRACE.isDebugEnabled()) {
+            TRACE.debug(String.format("sentence: %s tfIdf: %f", sentence, tfIdf));
+        }
+        final boolean trace = TRACE.isTraceEnabled();
         for (String w : sentence.getStemmedTermsAsList()) {
-            final double tfVal = tf(w, file);
+            final double tfVal = termFreqs.tf(w);
             final double idfVal = idf(w);
             tfIdf += tfVal * idfVal;
-            LOG.info(String.format("\tword: %s tf: %f idf: %f", w, tfVal, idfVal));
+            if (trace) {
+                TRACE.trace(String.format("\tword: %s tf: %f idf: %f", w, tfVal, idfVal));
+            }
         }
         sentence.setTermsWeight(tfIdf);
         return tfIdf;
     }
 
-    public void closeReader() throws IOException {
-        reader.close();
+    /**
+     * Close the index reader and the index.
+     * @throws IOException
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        IOUtils.close(index, readers, directory);
+        index = null;
+        readers = null;
+        docFreqs = null;
     }
 
     /**
@@ -416,7 +936,7 @@ public class Indexer {
             return;
         }
 
-        openReader();
+        final DirectoryReader reader = acquireReader();
         List<LeafReaderContext> leaves = reader.leaves();
         int docs[] = new int[reader.numDocs()];
         for (int i = 0; i < docs.length; i++) {
@@ -443,7 +963,6 @@ public class Indexer {
                 TermsEnum tenums = terms.iterator();
 
                 BytesRef text = null;
-                restoreFromFile();
                 System.out.println(fileName);
                 System.out.println(String.format("\t%-16s %-12s %-5s", "Stemmed", "DocFreq", "DocTf"));
                 while ((text = tenums.next()) != null) {
@@ -468,6 +987,6 @@ public class Indexer {
             System.out.println(String.format("%-17s%-13d%-23d", e.getKey(), e.getValue().getLeft(), e.getValue().getRight()));
         }
         System.out.println("=====================================");
-        closeReader();
+        releaseReader(reader);
     }
 }
@@ -0,0 +1,84 @@
+package ptuxiaki.indexing;
+
+import ptuxiaki.datastructures.TermDictionary;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * <p>The term frequency table of a single indexed document.
+ *
+ * <p>It holds for each stemmed term of the document how many times it occurs
+ * in it, along with the total number of terms the document has. The table is
+ * built once from the term vector of the document by {@link Indexer#termFrequencies(Path)},
+ * or by analyzing a text that is not indexed with {@link Indexer#analyze(String)},
+ * and is then used to answer every tf lookup of the document without touching the index again.
+ */
+public class TermFrequencies {
+
+    /**
+     * An empty table. Used for documents that are not found in the index.
+     */
+    public static final TermFrequencies EMPTY = new TermFrequencies(Collections.emptyMap(), 0);
+
+    /**
+     * term --> frequency of the term inside the document
+     */
+    private final Map<String, Integer> freqs;
+
+    /**
+     * The sum of all the term frequencies of the document
+     */
+    private final long totalTermFreq;
+
+    TermFrequencies(final Map<String, Integer> freqs, final long totalTermFreq) {
+        this.freqs = freqs;
+        this.totalTermFreq = totalTermFreq;
+    }
+
+    /**
+     * How many times the term appears in the document.
+     * @param term the stemmed word
+     * @return the raw frequency, 0 if the term does not exist in the document.
+     */
+    public int freq(final String term) {
+        return freqs.getOrDefault(term, 0);
+    }
+
+    /**
+     * Compute the frequency of a term in the document.
+     * The calculation is performed according to equation (3)
+     * presented <a href="file:///home/denis/Documents/bachelor_thesis/papers/B33.pdf">here</a>
+     * @param term the stemmed word
+     * @return the frequency of the term normalized by the total term frequency of the document.
+     */
+    public double tf(final String term) {
+        final int freq = freq(term);
+        if (freq == 0) {
+            return 0;
+        }
+        return (double) freq / totalTermFreq;
+    }
+
+    /**
+     * Compute the tf of every term of a document's dictionary at once.
+     * @param dictionary the term dictionary of the document
+     * @return the tf of each term, indexed by term id
+     */
+    public double[] tf(final TermDictionary dictionary) {
+        final double[] tfs = new double[dictionary.size()];
+        for (int id = 0; id < tfs.length; id++) {
+            tfs[id] = tf(dictionary.term(id));
+        }
+        return tfs;
+    }
+
+    public long totalTermFreq() {
+        return totalTermFreq;
+    }
+
+    public int size() {
+        return freqs.size();
+    }
+}
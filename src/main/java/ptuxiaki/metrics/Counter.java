@@ -0,0 +1,40 @@
+package ptuxiaki.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts events, documents or sentences processed, cache hits and so on.
+ * Nothing is counted while {@link Metrics} are disabled.
+ */
+public final class Counter {
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    Counter(final String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void increment() {
+        if (Metrics.enabled) {
+            count.increment();
+        }
+    }
+
+    public void add(final long n) {
+        if (Metrics.enabled) {
+            count.add(n);
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    void reset() {
+        count.reset();
+    }
+}
@@ -0,0 +1,35 @@
+package ptuxiaki.metrics;
+
+import java.util.Map;
+
+class JmxMetrics implements MetricsMXBean {
+
+    @Override
+    public boolean isEnabled() {
+        return Metrics.enabled();
+    }
+
+    @Override
+    public void setEnabled(final boolean enabled) {
+        if (enabled) {
+            Metrics.enable();
+        } else {
+            Metrics.disable();
+        }
+    }
+
+    @Override
+    public Map<String, Double> getValues() {
+        return Metrics.values();
+    }
+
+    @Override
+    public String getJson() {
+        return Metrics.toJson(System.currentTimeMillis());
+    }
+
+    @Override
+    public void reset() {
+        Metrics.reset();
+    }
+}
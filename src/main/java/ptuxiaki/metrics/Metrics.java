@@ -0,0 +1,171 @@
+package ptuxiaki.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * <p>The registry of every {@link Timer}, {@link Counter} and gauge of the program.
+ *
+ * <p>Metrics are disabled by default. While disabled, timers don't read the clock and counters don't
+ * count, the only cost left at each measured point is the read of a flag. Once {@link Metrics#enable()}
+ * is called they can be read through JMX under {@link Metrics#OBJECT_NAME}, or written to a file
+ * periodically by a {@link MetricsReporter}.
+ *
+ * <p>Each component keeps its own metrics in static fields, e.g.
+ * {@code private static final Timer PARSE = Metrics.timer("extract.parse");}
+ */
+public final class Metrics {
+    private static final Logger LOG = LoggerFactory.getLogger(Metrics.class);
+
+    public static final String OBJECT_NAME = "ptuxiaki:type=Metrics";
+
+    static volatile boolean enabled;
+
+    private static volatile long enabledAt = System.nanoTime();
+
+    private static final Map<String, Timer> TIMERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, DoubleSupplier> GAUGES = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    public static boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Start measuring and make the metrics available through JMX.
+     */
+    public static synchronized void enable() {
+        if (enabled) {
+            return;
+        }
+        enabledAt = System.nanoTime();
+        enabled = true;
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new JmxMetrics(), name);
+            }
+        } catch (JMException e) {
+            LOG.warn("Could not register the metrics MXBean", e);
+        }
+    }
+
+    public static synchronized void disable() {
+        enabled = false;
+    }
+
+    /**
+     * Zero every timer and counter, the rates are computed from this point on.
+     */
+    public static synchronized void reset() {
+        TIMERS.values().forEach(Timer::reset);
+        COUNTERS.values().forEach(Counter::reset);
+        enabledAt = System.nanoTime();
+    }
+
+    public static Timer timer(final String name) {
+        return TIMERS.computeIfAbsent(name, Timer::new);
+    }
+
+    public static Counter counter(final String name) {
+        return COUNTERS.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Register a value that is computed when the metrics are read, such as a cache hit rate.
+     * A gauge registered again under the same name replaces the previous one.
+     * @param name
+     * @param value
+     */
+    public static void gauge(final String name, final DoubleSupplier value) {
+        GAUGES.put(name, value);
+    }
+
+    /**
+     * @return seconds since the metrics were enabled or reset
+     */
+    static double elapsedSeconds() {
+        return Math.max(1e-9, (System.nanoTime() - enabledAt) / 1e9);
+    }
+
+    /**
+     * <p>Every metric as a flat name --> value map.
+     *
+     * <p>Timers give {@code count}, {@code perSecond}, {@code meanMs}, {@code p50Ms}, {@code p95Ms},
+     * {@code p99Ms}, {@code maxMs} and {@code totalMs}, counters {@code count} and {@code perSecond}.
+     * @return the values in name order
+     */
+    public static Map<String, Double> values() {
+        final double seconds = elapsedSeconds();
+        final Map<String, Double> values = new LinkedHashMap<>();
+        for (Timer t : TIMERS.values()) {
+            final String n = t.name() + ".";
+            values.put(n + "count", (double) t.count());
+            values.put(n + "perSecond", t.count() / seconds);
+            values.put(n + "meanMs", Timer.millis(t.meanNanos()));
+            values.put(n + "p50Ms", Timer.millis(t.percentileNanos(50)));
+            values.put(n + "p95Ms", Timer.millis(t.percentileNanos(95)));
+            values.put(n + "p99Ms", Timer.millis(t.percentileNanos(99)));
+            values.put(n + "maxMs", Timer.millis(t.maxNanos()));
+            values.put(n + "totalMs", Timer.millis(t.totalNanos()));
+        }
+        for (Counter c : COUNTERS.values()) {
+            values.put(c.name() + ".count", (double) c.count());
+            values.put(c.name() + ".perSecond", c.count() / seconds);
+        }
+        GAUGES.forEach((name, gauge) -> values.put(name, gauge.getAsDouble()));
+        return values;
+    }
+
+    /**
+     * @param timestamp milliseconds since the epoch the values are reported for
+     * @return every metric as a single line JSON object
+     */
+    public static String toJson(final long timestamp) {
+        final StringBuilder sb = new StringBuilder(1024);
+        sb.append("{\"timestamp\":").append(timestamp);
+        sb.append(",\"elapsedSeconds\":").append(number(elapsedSeconds()));
+        values().forEach((name, value) -> sb.append(",\"").append(name).append("\":").append(number(value)));
+        return sb.append('}').toString();
+    }
+
+    /**
+     * @return the header of {@link Metrics#toCsv(long)}
+     */
+    public static String csvHeader() {
+        return "timestamp,name,value";
+    }
+
+    /**
+     * @param timestamp milliseconds since the epoch the values are reported for
+     * @return every metric on its own line, with the timestamp in front
+     */
+    public static String toCsv(final long timestamp) {
+        final StringBuilder sb = new StringBuilder(4096);
+        values().forEach((name, value) -> sb.append(timestamp).append(',').append(name).append(',')
+                .append(number(value)).append(System.lineSeparator()));
+        return sb.toString();
+    }
+
+    private static String number(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return "0";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return String.valueOf((long) value);
+        }
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+}
@@ -0,0 +1,28 @@
+package ptuxiaki.metrics;
+
+import java.util.Map;
+
+/**
+ * The metrics as seen through JMX, registered under {@link Metrics#OBJECT_NAME}.
+ */
+public interface MetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return every metric, see {@link Metrics#values()}
+     */
+    Map<String, Double> getValues();
+
+    /**
+     * @return every metric as a JSON object
+     */
+    String getJson();
+
+    /**
+     * Zero every timer and counter.
+     */
+    void reset();
+}
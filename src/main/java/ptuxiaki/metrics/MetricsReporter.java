@@ -0,0 +1,75 @@
+package ptuxiaki.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Appends the {@link Metrics} to a file every few seconds, and once more when it is closed.
+ *
+ * <p>A file ending in {@code .csv} gets a {@code timestamp,name,value} line per metric, any other file
+ * a JSON object per report, one per line.
+ */
+public class MetricsReporter implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsReporter.class);
+
+    private final Path file;
+    private final boolean csv;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Start reporting.
+     * @param file the report file, created if it does not exist
+     * @param intervalSeconds seconds between two reports
+     */
+    public MetricsReporter(final Path file, final long intervalSeconds) {
+        this.file = file;
+        this.csv = file.getFileName().toString().toLowerCase().endsWith(".csv");
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "metrics-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::report, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Append the current values of the metrics to the report file.
+     */
+    public synchronized void report() {
+        try {
+            final long now = System.currentTimeMillis();
+            final StringBuilder sb = new StringBuilder();
+            if (csv) {
+                if (!Files.exists(file) || Files.size(file) == 0) {
+                    sb.append(Metrics.csvHeader()).append(System.lineSeparator());
+                }
+                sb.append(Metrics.toCsv(now));
+            } else {
+                sb.append(Metrics.toJson(now)).append(System.lineSeparator());
+            }
+            Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOG.warn(String.format("Could not write the metrics to %s", file), e);
+        }
+    }
+
+    /**
+     * Stop the periodic reports and write a last one.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        report();
+    }
+}
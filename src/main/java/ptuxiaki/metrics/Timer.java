@@ -0,0 +1,144 @@
+package ptuxiaki.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Measures how long a stage takes, keeping a histogram of its latencies.
+ *
+ * <p>A measured block looks like
+ * <pre>
+ *     final long start = TIMER.start();
+ *     ... the stage ...
+ *     TIMER.stop(start);
+ * </pre>
+ * When {@link Metrics} are disabled {@code start} returns 0 without reading the clock and {@code stop} does nothing.
+ *
+ * <p>The histogram has 4 buckets for each power of two nanoseconds, so a percentile is off by at most 25%,
+ * and a fixed size whatever the number of samples. Recording can be done from several threads at once.
+ */
+public final class Timer {
+    private static final int SUB_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = 64 << SUB_BITS;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    Timer(final String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the current time in nanoseconds, or 0 if metrics are disabled
+     */
+    public long start() {
+        return Metrics.enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Record the time passed since {@code start}.
+     * @param start the value {@link Timer#start()} returned
+     */
+    public void stop(final long start) {
+        if (start != 0L) {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Record a latency, whether metrics are enabled or not.
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(final long nanos) {
+        final long v = Math.max(0, nanos);
+        buckets.incrementAndGet(bucket(v));
+        count.increment();
+        total.add(v);
+        max.accumulate(v);
+    }
+
+    static int bucket(final long v) {
+        if (v < SUB_BUCKETS) {
+            return (int) v;
+        }
+        final int exp = 63 - Long.numberOfLeadingZeros(v);
+        final int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return ((exp - SUB_BITS + 1) << SUB_BITS) + sub;
+    }
+
+    /**
+     * @return the smallest latency that falls in bucket {@code i}
+     */
+    static long lowerBound(final int i) {
+        if (i < SUB_BUCKETS) {
+            return i;
+        }
+        return (long) (SUB_BUCKETS + (i & (SUB_BUCKETS - 1))) << ((i >> SUB_BITS) - 1);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long totalNanos() {
+        return total.sum();
+    }
+
+    public long maxNanos() {
+        return max.get();
+    }
+
+    public double meanNanos() {
+        final long c = count();
+        return c == 0 ? 0 : (double) totalNanos() / c;
+    }
+
+    /**
+     * @param p the percentile, between 0 and 100
+     * @return the upper bound of the bucket the percentile falls in, at most the maximum latency
+     */
+    public long percentileNanos(final double p) {
+        final long[] counts = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            n += counts[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(p / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                final long upper = i + 1 < BUCKETS ? lowerBound(i + 1) - 1 : Long.MAX_VALUE;
+                return Math.min(upper, maxNanos());
+            }
+        }
+        return maxNanos();
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+
+    static double millis(final double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
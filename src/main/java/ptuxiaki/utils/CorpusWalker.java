@@ -0,0 +1,154 @@
+package ptuxiaki.utils;
+
+import ptuxiaki.datastructures.Conf;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * <p>Walks a directory tree and hands the documents found in it to a visitor, one at a time.
+ * The tree is streamed with {@link Files#walkFileTree(Path, java.util.Set, int, FileVisitor)}, so the memory
+ * used does not depend on the number of files in a directory. Symbolic links are followed, a link back to
+ * a directory being walked is reported and skipped.
+ *
+ * <p>The documents are picked with comma separated glob patterns. A pattern with no '/' is matched
+ * against the file name, otherwise against the path relative to the root. A file is visited if it
+ * matches an include pattern and no exclude pattern. Directories matching an exclude pattern are
+ * not entered at all.
+ *
+ * <p>Both the {@link ptuxiaki.indexing.Indexer} and the {@link ptuxiaki.Summarizer} walk the
+ * directories with {@link CorpusWalker#of(Path)}, so they see the same documents.
+ */
+public class CorpusWalker {
+
+    /**
+     * Called for each document found.
+     */
+    public interface Visitor {
+        void visit(Path file) throws IOException;
+    }
+
+    public static final String DEFAULT_INCLUDE = "*";
+
+    /**
+     * Hidden files, for example .directory files on kde dolphin, lock files and class files
+     */
+    public static final String DEFAULT_EXCLUDE = ".*,*lock,*.class";
+
+    private final Path root;
+    private final List<PathMatcher> nameIncludes = new ArrayList<>();
+    private final List<PathMatcher> pathIncludes = new ArrayList<>();
+    private final List<PathMatcher> nameExcludes = new ArrayList<>();
+    private final List<PathMatcher> pathExcludes = new ArrayList<>();
+
+    private int failures;
+    private int visited;
+
+    /**
+     * @param root the directory to walk
+     * @param include comma separated glob patterns of the files to visit
+     * @param exclude comma separated glob patterns of the files and directories to skip
+     */
+    public CorpusWalker(final Path root, final String include, final String exclude) {
+        this.root = root;
+        compile(include, nameIncludes, pathIncludes);
+        compile(exclude, nameExcludes, pathExcludes);
+    }
+
+    /**
+     * A walker using the include and exclude patterns of the configuration.
+     * @param root the directory to walk
+     * @return
+     */
+    public static CorpusWalker of(final Path root) {
+        final Conf conf = Conf.instance();
+        return new CorpusWalker(root, conf.include(), conf.exclude());
+    }
+
+    private static void compile(final String patterns, final List<PathMatcher> names, final List<PathMatcher> paths) {
+        final FileSystem fs = FileSystems.getDefault();
+        for (String pattern : patterns.split(",")) {
+            pattern = pattern.trim();
+            if (pattern.isEmpty()) continue;
+            (pattern.contains("/") ? paths : names).add(fs.getPathMatcher("glob:" + pattern));
+        }
+    }
+
+    private static boolean matches(final Path relative, final List<PathMatcher> names, final List<PathMatcher> paths) {
+        final Path name = relative.getFileName();
+        for (PathMatcher m : names) {
+            if (name != null && m.matches(name)) return true;
+        }
+        for (PathMatcher m : paths) {
+            if (m.matches(relative)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param file a file under the root
+     * @return True if the file is a document to visit
+     */
+    public boolean accept(final Path file) {
+        final Path relative = root.relativize(file);
+        return matches(relative, nameIncludes, pathIncludes) && !matches(relative, nameExcludes, pathExcludes);
+    }
+
+    /**
+     * Visit every document under the root. Files or directories that can't be read are
+     * reported and skipped, see {@link CorpusWalker#failures()}.
+     * @param visitor called for each document
+     * @throws IOException if the visitor throws
+     */
+    public void walk(final Visitor visitor) throws IOException {
+        failures = 0;
+        visited = 0;
+        Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(root) && matches(root.relativize(dir), nameExcludes, pathExcludes)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (attrs.isRegularFile() && accept(file)) {
+                    visited++;
+                    visitor.visit(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                if (e instanceof FileSystemLoopException) {
+                    System.err.printf("Skipping %s, it links to a directory being walked%n", file);
+                    return FileVisitResult.CONTINUE;
+                }
+                failures++;
+                System.err.printf("Cannot read %s: %s%n", file, e);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * @return the number of files and directories the last walk could not read
+     */
+    public int failures() {
+        return failures;
+    }
+
+    /**
+     * @return the number of documents the last walk passed to the visitor
+     */
+    public int visited() {
+        return visited;
+    }
+}
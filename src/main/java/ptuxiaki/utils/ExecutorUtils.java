@@ -0,0 +1,28 @@
+package ptuxiaki.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ExecutorUtils {
+
+    /**
+     * Wait for the tasks of a pool that is shut down to finish.
+     * The interrupt status is kept if the calling thread is interrupted while waiting.
+     * @param pool
+     */
+    public static void awaitTermination(final ExecutorService pool) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
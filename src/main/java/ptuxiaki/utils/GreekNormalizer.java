@@ -0,0 +1,155 @@
+package ptuxiaki.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>Normalizes and tokenizes a sentence in a single scan.
+ *
+ * <p>It produces the same words as the chain {@link SentenceUtils#removeSpecialChars(String)},
+ * {@link SentenceUtils#removeNumbers(String)}, {@link SentenceUtils#removeTonation(String)},
+ * {@link SentenceUtils#replaceSigma(String)} and {@link SentenceUtils#removeWhiteSpaces(String)} applied
+ * on the lower cased sentence and then split on whitespace, without creating any intermediate String.
+ * Each character is lower cased and then looked up in a table that says whether it is dropped, separates
+ * words or which character it is replaced with.
+ *
+ * <p>The words are written one after the other in an internal buffer that is reused between calls,
+ * so an instance must not be shared between threads.
+ *
+ * <p>Lower casing is done per character with {@link Character#toLowerCase(int)}, which
+ * matches {@link String#toLowerCase()} except for locale specific rules of the Turkish, Azeri and Lithuanian locales.
+ */
+public final class GreekNormalizer {
+    // a non character, it can't be the result of a mapping
+    private static final char DROP = '\uFFFF';
+    private static final char SEPARATOR = ' ';
+
+    private static final char[] TABLE = new char[0x400];
+
+    static {
+        for (char c = 0; c < TABLE.length; c++) {
+            TABLE[c] = c;
+        }
+        // removeSpecialChars, except … that is outside the table
+        for (char c : "@#$%^&*();!\"',»«.-:".toCharArray()) {
+            TABLE[c] = DROP;
+        }
+        // removeNumbers
+        for (char c = '0'; c <= '9'; c++) {
+            TABLE[c] = DROP;
+        }
+        // removeTonation
+        TABLE['ά'] = 'α';
+        TABLE['έ'] = 'ε';
+        TABLE['ή'] = 'η';
+        TABLE['ί'] = 'ι';
+        TABLE['ό'] = 'ο';
+        TABLE['ύ'] = 'υ';
+        TABLE['ώ'] = 'ω';
+        TABLE['ϋ'] = 'υ';
+        TABLE['ΰ'] = 'υ';
+        TABLE['ϊ'] = 'ι';
+        TABLE['ΐ'] = 'ι';
+        // replaceSigma
+        TABLE['ς'] = 'σ';
+        // the whitespace characters of regex \s
+        for (char c : " \t\n\u000B\f\r".toCharArray()) {
+            TABLE[c] = SEPARATOR;
+        }
+    }
+
+    private static final char ELLIPSIS = '…';
+    private static final char CAPITAL_I_WITH_DOT = 'İ';
+
+    private char[] buffer = new char[128];
+    private int[] starts = new int[16];
+    private int[] lengths = new int[16];
+    private int words;
+    private int length;
+
+    /**
+     * Normalize a sentence and split it to words.
+     * @param sentence the sentence as found in the document
+     * @return the number of words, see {@link GreekNormalizer#wordStart(int)} and {@link GreekNormalizer#wordLength(int)}
+     */
+    public int normalize(final CharSequence sentence) {
+        words = 0;
+        length = 0;
+        int wordStart = -1;
+        final int n = sentence.length();
+        for (int i = 0; i < n; i++) {
+            final char c = sentence.charAt(i);
+            int lc;
+            if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(sentence.charAt(i + 1))) {
+                lc = Character.toLowerCase(Character.toCodePoint(c, sentence.charAt(++i)));
+            } else if (c == CAPITAL_I_WITH_DOT) {
+                // the only character String#toLowerCase turns to two
+                wordStart = append('i', wordStart);
+                lc = '\u0307';
+            } else {
+                lc = Character.toLowerCase(c);
+            }
+
+            if (lc < TABLE.length) {
+                final char t = TABLE[lc];
+                if (t == SEPARATOR) {
+                    wordStart = endWord(wordStart);
+                } else if (t != DROP) {
+                    wordStart = append(t, wordStart);
+                }
+            } else if (lc == ELLIPSIS) {
+                continue;
+            } else if (Character.isBmpCodePoint(lc)) {
+                wordStart = append((char) lc, wordStart);
+            } else {
+                wordStart = append(Character.highSurrogate(lc), wordStart);
+                wordStart = append(Character.lowSurrogate(lc), wordStart);
+            }
+        }
+        endWord(wordStart);
+        return words;
+    }
+
+    private int append(final char c, int wordStart) {
+        if (length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, length * 2);
+        }
+        if (wordStart < 0) {
+            wordStart = length;
+        }
+        buffer[length++] = c;
+        return wordStart;
+    }
+
+    private int endWord(final int wordStart) {
+        if (wordStart >= 0) {
+            if (words == starts.length) {
+                starts = Arrays.copyOf(starts, words * 2);
+                lengths = Arrays.copyOf(lengths, words * 2);
+            }
+            starts[words] = wordStart;
+            lengths[words] = length - wordStart;
+            words++;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the buffer holding the words of the last normalized sentence
+     */
+    public char[] buffer() {
+        return buffer;
+    }
+
+    public int wordStart(final int i) {
+        return starts[i];
+    }
+
+    public int wordLength(final int i) {
+        return lengths[i];
+    }
+
+    public String word(final int i) {
+        return new String(buffer, starts[i], lengths[i]);
+    }
+
+}
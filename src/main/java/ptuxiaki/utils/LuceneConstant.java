@@ -5,6 +5,9 @@ public class LuceneConstant {
     public static final String CONTENTS = "contents";
     public static final String FILE_NAME = "filename";
     public static final String FILE_PATH = "filepath";
-    public static final String DOC_ID = "uuid";
+    public static final String CONTENT_HASH = "hash";
+    public static final String FILE_SIZE = "size";
+    public static final String LAST_MODIFIED = "mtime";
+    public static final String TOTAL_TERM_FREQ = "totalTermFreq";
 
 }
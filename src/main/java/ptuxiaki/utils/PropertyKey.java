@@ -6,6 +6,8 @@ public class PropertyKey {
     public static final String WSL = "wsl";
     public static final String WST = "wst";
     public static final String WTT = "wtt";
+    public static final String A = "a";
+    public static final String B = "b";
     public static final String SW = "sw";
     public static final String IDF = "idf";
     public static final String ISF = "isf";
@@ -16,4 +18,20 @@ public class PropertyKey {
     public static final String NNKSTEMER = "nnk";
     public static final String LUCESTEMMER = "lucene";
     public static final String SHOWTITLES = "showTitles";
+    public static final String THREADS = "threads";
+    public static final String WRITE_LIMIT = "writeLimit";
+    public static final String DF_CACHE_SIZE = "dfCacheSize";
+    public static final String INDEX_THREADS = "indexThreads";
+    public static final String RAM_BUFFER_SIZE = "ramBufferSize";
+    public static final String INCLUDE = "include";
+    public static final String EXCLUDE = "exclude";
+    public static final String FORCE_MERGE = "forceMerge";
+    public static final String METRICS = "metrics";
+    public static final String METRICS_REPORT = "metricsReport";
+    public static final String METRICS_INTERVAL = "metricsInterval";
+    public static final String OUTPUT = "output";
+    public static final String OUTPUT_DIR = "dir";
+    public static final String OUTPUT_JSONL = "jsonl";
+    public static final String OUTPUT_ZIP = "zip";
+    public static final String OUTPUT_QUEUE = "outputQueue";
 }
@@ -1,16 +1,25 @@
 package ptuxiaki.utils;
 
-import org.apache.commons.lang3.text.StrBuilder;
 import org.apache.lucene.analysis.el.GreekAnalyzer;
 import org.apache.lucene.analysis.el.GreekStemmer;
 import org.apache.lucene.analysis.util.CharArraySet;
 import ptuxiaki.datastructures.Conf;
+import ptuxiaki.metrics.Metrics;
+import ptuxiaki.metrics.Timer;
 import stemmer.NNKStemmerAdapter;
+import stemmer.StemCache;
 
 public class SentenceUtils {
 
     private static GreekStemmer greekStemmer = new GreekStemmer();
 
+    private static final StemCache.Stemmer LUCENE_STEMMER = greekStemmer::stem;
+    private static final StemCache.Stemmer NNK_STEMMER = NNKStemmerAdapter::stemWord;
+
+    private static final ThreadLocal<GreekNormalizer> NORMALIZER = ThreadLocal.withInitial(GreekNormalizer::new);
+
+    private static final Timer STEM = Metrics.timer("stem.sentence");
+
     private static CharArraySet STOP_WORDS = GreekAnalyzer.getDefaultStopSet();
 
     static {
@@ -24,6 +33,10 @@ public class SentenceUtils {
         STOP_WORDS.add("στα");
     }
 
+    static boolean isStopWord(final String word) {
+        return STOP_WORDS.contains(word);
+    }
+
     public static String stemWord(String word) {
         if (Conf.instance().stemmerClass().equals(PropertyKey.NNKSTEMER)) {
             return stemWordNNK(word);
@@ -33,25 +46,41 @@ public class SentenceUtils {
     }
 
     private static String stemWordNNK(String word) {
-        final int l = NNKStemmerAdapter.stemWord(word.toCharArray(), word.length());
+        final int l = StemCache.forStemmer(PropertyKey.NNKSTEMER).stem(word.toCharArray(), word.length(), NNK_STEMMER);
         return word.substring(0, l);
     }
 
     private static String stemWordLucene(String word) {
-        final int l = greekStemmer.stem(word.toCharArray(), word.length());
+        final int l = StemCache.forStemmer(PropertyKey.LUCESTEMMER).stem(word.toCharArray(), word.length(), LUCENE_STEMMER);
         return word.substring(0, l);
     }
 
 
+    /**
+     * Normalize the sentence with a {@link GreekNormalizer}, remove the stop words and stem the rest.
+     * @param sentence
+     * @return the stems of the sentence separated by a space character
+     */
     public static String stemSentence(final String sentence) {
-        String [] words = removeWhiteSpaces(replaceSigma(removeTonation(removeNumbers((removeSpecialChars(sentence.toLowerCase())))))).split("\\s+");
-        StrBuilder strBuilder = new StrBuilder();
-        for (String w : words) {
-            if (!STOP_WORDS.contains(w)) {
-                strBuilder.append(stemWord(w)).append(" ");
-            }
+        final long stemStart = STEM.start();
+        final boolean nnk = Conf.instance().stemmerClass().equals(PropertyKey.NNKSTEMER);
+        final StemCache cache = StemCache.forStemmer(nnk ? PropertyKey.NNKSTEMER : PropertyKey.LUCESTEMMER);
+        final StemCache.Stemmer stemmer = nnk ? NNK_STEMMER : LUCENE_STEMMER;
+
+        final GreekNormalizer normalizer = NORMALIZER.get();
+        final int words = normalizer.normalize(sentence);
+        final char[] buffer = normalizer.buffer();
+        StringBuilder stems = new StringBuilder(sentence.length());
+        for (int i = 0; i < words; i++) {
+            final int start = normalizer.wordStart(i);
+            final int len = normalizer.wordLength(i);
+            if (STOP_WORDS.contains(buffer, start, len)) continue;
+            // the stem is a prefix of the word, looked up in place and only copied on a miss
+            final int l = cache.stem(buffer, start, len, stemmer);
+            stems.append(buffer, start, l).append(' ');
         }
-        return strBuilder.toString().trim();
+        STEM.stop(stemStart);
+        return stems.toString().trim();
     }
 
     public static String removeSpecialChars(final String word) {
@@ -0,0 +1,97 @@
+package ptuxiaki.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * <p>Selects the k greatest elements of a list without sorting it.
+ *
+ * <p>The indices of the best k elements seen so far are kept in a binary min heap whose root is the
+ * worst of them, so each element costs at most one comparison with the root plus log k for a
+ * replacement, O(n log k) in total instead of the O(n log n) of a full sort.
+ *
+ * <p>Equal elements are ordered by their index in the list, the earlier one is greater. This is the
+ * order a stable sort in descending order gives, so the selection is the same as
+ * {@code sort(order.reversed())} followed by {@code subList(0, k)}.
+ */
+public final class TopK {
+
+    private TopK() {
+    }
+
+    /**
+     * The {@code k} greatest elements of {@code items} according to {@code order}.
+     * The list is not modified.
+     * @param items the elements to select from
+     * @param k how many elements to select
+     * @param order the order of the elements, the greatest are selected
+     * @return a new list with the selected elements in the order they have in {@code items}
+     */
+    public static <T> List<T> select(final List<? extends T> items, final int k, final Comparator<? super T> order) {
+        final Object[] a = items.toArray();
+        final int n = Math.min(Math.max(k, 0), a.length);
+        final int[] heap = new int[n];
+        int size = 0;
+        for (int i = 0; i < a.length && n > 0; i++) {
+            if (size < n) {
+                heap[size] = i;
+                siftUp(a, heap, size++, order);
+            } else if (order.compare(cast(a[i]), cast(a[heap[0]])) > 0) {
+                // i comes after everything in the heap so it only wins on a strictly greater element
+                heap[0] = i;
+                siftDown(a, heap, size, order);
+            }
+        }
+        Arrays.sort(heap);
+        final List<T> selected = new ArrayList<>(n);
+        for (int i : heap) {
+            selected.add(cast(a[i]));
+        }
+        return selected;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(final Object o) {
+        return (T) o;
+    }
+
+    /**
+     * @return true if the element at index {@code i} comes before the one at {@code j} in the heap, that is it is worse
+     */
+    private static <T> boolean worse(final Object[] a, final int i, final int j, final Comparator<? super T> order) {
+        final int c = order.compare(cast(a[i]), cast(a[j]));
+        return c < 0 || (c == 0 && i > j);
+    }
+
+    private static <T> void siftUp(final Object[] a, final int[] heap, int pos, final Comparator<? super T> order) {
+        final int x = heap[pos];
+        while (pos > 0) {
+            final int parent = (pos - 1) >>> 1;
+            if (!worse(a, x, heap[parent], order)) {
+                break;
+            }
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = x;
+    }
+
+    private static <T> void siftDown(final Object[] a, final int[] heap, final int size, final Comparator<? super T> order) {
+        final int x = heap[0];
+        int pos = 0;
+        int child;
+        while ((child = 2 * pos + 1) < size) {
+            if (child + 1 < size && worse(a, heap[child + 1], heap[child], order)) {
+                child++;
+            }
+            if (!worse(a, heap[child], x, order)) {
+                break;
+            }
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = x;
+    }
+}
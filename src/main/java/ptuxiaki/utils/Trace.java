@@ -0,0 +1,83 @@
+package ptuxiaki.utils;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>The diagnostic trace of the sentence scoring, written by the logger named {@value Trace#LOGGER}.
+ *
+ * <p>The weights of every sentence are logged at debug level and the tf and idf or isf of every word of it
+ * at trace level. The logger is off in logback.xml, so callers check {@link Logger#isDebugEnabled()} or
+ * {@link Logger#isTraceEnabled()} once before a loop and skip building the messages altogether.
+ * When it is turned on the messages go through an asynchronous appender to {@value Trace#FILE}.
+ */
+public final class Trace {
+    public static final String LOGGER = "trace";
+    public static final String FILE = "log/trace.log";
+
+    private Trace() {
+    }
+
+    public static Logger logger() {
+        return LoggerFactory.getLogger(LOGGER);
+    }
+
+    /**
+     * Turn the trace on for this run, writing it to {@value Trace#FILE}.
+     * The file is only created, and the trace of a previous run replaced, when this is called.
+     */
+    public static void enable() {
+        final Logger logger = logger();
+        if (logger instanceof ch.qos.logback.classic.Logger) {
+            final ch.qos.logback.classic.Logger l = (ch.qos.logback.classic.Logger) logger;
+            l.addAppender(appender(FILE, true));
+            l.setLevel(Level.TRACE);
+        }
+    }
+
+    /**
+     * An appender writing the messages, one per line, to {@code file}, which is truncated.
+     * The stream is not flushed after every message, it is when the appender is stopped,
+     * which the shutdown hook of logback.xml does for the appenders of every logger.
+     * @param file the file to write to
+     * @param async whether the messages are queued and written by a single thread, waiting instead of
+     *              dropping messages when the queue is full
+     * @return the started appender
+     */
+    public static Appender<ILoggingEvent> appender(final String file, final boolean async) {
+        final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        final PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.setPattern("%msg%n");
+        encoder.setImmediateFlush(false);
+        encoder.start();
+        final FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setName(LOGGER);
+        fileAppender.setFile(file);
+        fileAppender.setAppend(false);
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+        if (!async) {
+            return fileAppender;
+        }
+        final AsyncAppender asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setName("async-" + LOGGER);
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setDiscardingThreshold(0);
+        asyncAppender.addAppender(fileAppender);
+        asyncAppender.start();
+        return asyncAppender;
+    }
+}
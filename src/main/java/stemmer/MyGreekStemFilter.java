@@ -6,6 +6,7 @@ import org.apache.lucene.analysis.el.GreekLowerCaseFilter;
 import org.apache.lucene.analysis.miscellaneous.SetKeywordMarkerFilter;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.apache.lucene.analysis.tokenattributes.KeywordAttribute;
+import ptuxiaki.utils.PropertyKey;
 
 import java.io.IOException;
 
@@ -25,7 +26,9 @@ import java.io.IOException;
  */
 
 public final class MyGreekStemFilter extends TokenFilter {
-    //private final GreekStemmer stemmer = new GreekStemmer();
+    private final NNKStemmerAdapter nnkStemmer = new NNKStemmerAdapter();
+    private final StemCache.Stemmer stemmer = nnkStemmer::stem;
+    private final StemCache cache = StemCache.forStemmer(PropertyKey.NNKSTEMER);
     private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
     private final KeywordAttribute keywordAttr = addAttribute(KeywordAttribute.class);
 
@@ -37,7 +40,7 @@ public final class MyGreekStemFilter extends TokenFilter {
     public boolean incrementToken() throws IOException {
         if (input.incrementToken()) {
             if (!keywordAttr.isKeyword()) {
-                final int newlen = NNKStemmerAdapter.stemWord(termAtt.buffer(), termAtt.length());
+                final int newlen = cache.stem(termAtt.buffer(), termAtt.length(), stemmer);
                 termAtt.setLength(newlen);
             }
             return true;
@@ -7,17 +7,36 @@ import java.util.ArrayList;
 
 import static nnkstemmer.nnkstem.rswas;
 
+/**
+ * <p>Adapts {@link nnkstemmer.nnkstem} to the {@code char[]} in, length out interface
+ * lucene stemmers have.
+ *
+ * <p>The nnk library works on a list of {@link word_node}s. Each adapter instance owns its list,
+ * so an instance must not be shared between threads. {@link MyGreekStemFilter} keeps one per
+ * filter, which lucene already confines to a single thread, while {@link NNKStemmerAdapter#stemWord(char[], int)}
+ * uses one per thread.
+ */
 public class NNKStemmerAdapter {
-    static ArrayList<nnkstemmer.word_node> words = new ArrayList<>();
+    private static final ThreadLocal<NNKStemmerAdapter> PER_THREAD = ThreadLocal.withInitial(NNKStemmerAdapter::new);
 
-    public static int stemWord(char []data, int size) {
+    private final ArrayList<word_node> words = new ArrayList<>(1);
+
+    /**
+     * Stem the word found in the first {@code size} characters of {@code data}.
+     * The buffer is not modified, the stem is its first characters.
+     * @param data the buffer holding the word
+     * @param size the length of the word
+     * @return the length of the stem, 0 if nnk considers it a stop, short or code word.
+     */
+    public int stem(char []data, int size) {
         try {
             // use the portion of the array that has characters
             // otherwise the entire data array is filled, and the
-            // space that is leftover is filled with \\u0000
+            // space that is leftover is filled with \\u0000.
+            // word_node only accepts a String so this is the one copy we can't avoid
             words.add(new word_node(String.valueOf(data, 0, size)));
             rswas(words);
-            final word_node wn = words.remove(0);
+            final word_node wn = words.get(0);
             if (wn.getType() == word_node.ShortWord) {
                 return 0;
             } else if (wn.getType() == word_node.StopWord) {
@@ -28,8 +47,18 @@ public class NNKStemmerAdapter {
             return (wn.getNormalized() == null) ? wn.getWord().length() : wn.getNormalized().length();
         } catch (Exception e) {
             System.out.print(e.getMessage());
-            System.out.println(words.remove(0));
+            System.out.println(words.isEmpty() ? "" : words.get(0));
             return size;
+        } finally {
+            words.clear();
         }
     }
+
+    /**
+     * Stem a word using the adapter of the calling thread.
+     * @see NNKStemmerAdapter#stem(char[], int)
+     */
+    public static int stemWord(char []data, int size) {
+        return PER_THREAD.get().stem(data, size);
+    }
 }
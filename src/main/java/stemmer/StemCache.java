@@ -0,0 +1,224 @@
+package stemmer;
+
+import ptuxiaki.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A bounded cache of surface form --> stem length, shared by every thread that stems with
+ * the same stemmer.
+ *
+ * <p>Both stemmers we use keep the stem as a prefix of the word, so caching its length is enough.
+ * Lookups are done directly on the caller's {@code char[]} buffer, no String is created to query
+ * the cache. Only a miss copies the word in order to store it.
+ *
+ * <p>The cache is split into segments, each one a {@link LinkedHashMap} in access order guarded
+ * by its own lock. When a segment is full its least recently used entry is evicted.
+ * Word frequencies follow Zipf's law so most of the stemming turns into cache hits.
+ */
+public final class StemCache {
+
+    /**
+     * Any stemmer working in place on a char buffer, like {@link org.apache.lucene.analysis.el.GreekStemmer}
+     * or {@link NNKStemmerAdapter}.
+     */
+    public interface Stemmer {
+        /**
+         * @param s the buffer holding the word, it may be modified
+         * @param len the length of the word
+         * @return the length of the stem
+         */
+        int stem(char[] s, int len);
+    }
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final int SEGMENTS = 16;
+
+    private static final Map<String, StemCache> CACHES = new ConcurrentHashMap<>();
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * The cache of a stemmer
+     * @param stemmer the stemmer name, one of {@link ptuxiaki.utils.PropertyKey#NNKSTEMER}
+     *                {@link ptuxiaki.utils.PropertyKey#LUCESTEMMER}
+     * @return the cache used for that stemmer
+     */
+    public static StemCache forStemmer(final String stemmer) {
+        return CACHES.computeIfAbsent(stemmer, s -> {
+            final StemCache cache = new StemCache(DEFAULT_CAPACITY);
+            Metrics.gauge("stemCache." + s + ".hitRate", cache::hitRate);
+            return cache;
+        });
+    }
+
+    public StemCache(final int capacity) {
+        final int perSegment = Math.max(1, capacity / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * Get the stem length of a word from the cache, computing it with {@code stemmer} if it is not there.
+     * @param s the buffer holding the word. It is passed to {@code stemmer} as is on a miss.
+     * @param len the length of the word
+     * @param stemmer used on a cache miss
+     * @return the length of the stem
+     */
+    public int stem(final char[] s, final int len, final Stemmer stemmer) {
+        final int hash = hash(s, 0, len);
+        final Segment segment = segment(hash);
+        final Integer cached = segment.lookup(s, 0, len, hash);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        final Key key = new Key(Arrays.copyOf(s, len), 0, len, hash);
+        final int stemLength = stemmer.stem(s, len);
+        segment.store(key, stemLength);
+        return stemLength;
+    }
+
+    /**
+     * Get the stem length of a word inside a larger buffer, such as the one of a normalized sentence.
+     * The buffer is left as it is, the word is only copied on a miss, for the cache and for {@code stemmer}.
+     * @param s the buffer holding the word
+     * @param offset where the word starts in {@code s}
+     * @param len the length of the word
+     * @param stemmer used on a cache miss
+     * @return the length of the stem
+     */
+    public int stem(final char[] s, final int offset, final int len, final Stemmer stemmer) {
+        final int hash = hash(s, offset, len);
+        final Segment segment = segment(hash);
+        final Integer cached = segment.lookup(s, offset, len, hash);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        final Key key = new Key(Arrays.copyOfRange(s, offset, offset + len), 0, len, hash);
+        final int stemLength = stemmer.stem(Arrays.copyOf(key.chars, len), len);
+        segment.store(key, stemLength);
+        return stemLength;
+    }
+
+    private Segment segment(final int hash) {
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public double hitRate() {
+        final long h = hits(), total = h + misses();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.count();
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size: %d hits: %d misses: %d hit rate: %.3f", size(), hits(), misses(), hitRate());
+    }
+
+    private static int hash(final char[] s, final int offset, final int len) {
+        int h = 0;
+        for (int i = offset; i < offset + len; i++) {
+            h = 31 * h + s[i];
+        }
+        return h;
+    }
+
+    /**
+     * A word used as a map key. Stored keys own a copy of the word, while the probe key
+     * of each segment points to the caller's buffer for the duration of a lookup.
+     */
+    private static final class Key {
+        char[] chars;
+        int offset;
+        int len;
+        int hash;
+
+        Key(final char[] chars, final int offset, final int len, final int hash) {
+            this.chars = chars;
+            this.offset = offset;
+            this.len = len;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            final Key k = (Key) o;
+            if (k.len != len || k.hash != hash) return false;
+            for (int i = 0; i < len; i++) {
+                if (k.chars[k.offset + i] != chars[offset + i]) return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A map in access order, evicting its least recently used entry once it holds more than {@code capacity}.
+     */
+    private static final class Segment {
+        private final int capacity;
+        private final Map<Key, Integer> map = new LinkedHashMap<>(16, 0.75f, true);
+        private final Key probe = new Key(null, 0, 0, 0);
+
+        Segment(final int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized Integer lookup(final char[] s, final int offset, final int len, final int hash) {
+            probe.chars = s;
+            probe.offset = offset;
+            probe.len = len;
+            probe.hash = hash;
+            final Integer value = map.get(probe);
+            probe.chars = null;
+            return value;
+        }
+
+        synchronized void store(final Key key, final int stemLength) {
+            map.put(key, stemLength);
+            if (map.size() > capacity) {
+                final Iterator<Key> eldest = map.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+
+        synchronized int count() {
+            return map.size();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ptuxiaki;
+
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A temporary folder for the tests that index and summarize documents,
+ * holding the documents in {@code docs} and their index in {@code index}.
+ */
+public class DocumentFolder extends TemporaryFolder {
+    private Path docs;
+
+    @Override
+    protected void before() throws Throwable {
+        super.before();
+        docs = newFolder("docs").toPath();
+    }
+
+    public Path docs() {
+        return docs;
+    }
+
+    public String indexDir() {
+        return new File(getRoot(), "index").getPath();
+    }
+
+    /**
+     * @param name the path of the document relative to {@link #docs()}
+     */
+    public Path doc(String name) {
+        return docs.resolve(name);
+    }
+
+    /**
+     * Write a document, creating its directories.
+     * @param name the path of the document relative to {@link #docs()}
+     */
+    public Path write(String name, String text) throws IOException {
+        final Path file = doc(name);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+}
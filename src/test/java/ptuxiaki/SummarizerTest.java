@@ -0,0 +1,181 @@
+package ptuxiaki;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import ptuxiaki.datastructures.Conf;
+import ptuxiaki.datastructures.Sentence;
+import ptuxiaki.indexing.Indexer;
+import ptuxiaki.utils.SentenceUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class SummarizerTest {
+    private static final String TEXT = "Οικονομία και ανάπτυξη\n\n" +
+            "Η ελληνική οικονομία παρουσίασε σημάδια ανάκαμψης κατά το πρώτο τρίμηνο του έτους. " +
+            "Σύμφωνα με τα στοιχεία της στατιστικής υπηρεσίας το ακαθάριστο εγχώριο προϊόν αυξήθηκε. " +
+            "Ο υπουργός Οικονομικών δήλωσε ότι η ανάπτυξη θα συνεχιστεί και τους επόμενους μήνες.\n\n" +
+            "Οι επενδύσεις στον τουριστικό τομέα αυξάνονται σταθερά τα τελευταία χρόνια. " +
+            "Πολλές εταιρείες ανακοίνωσαν νέα ξενοδοχειακά έργα στα νησιά του Αιγαίου. " +
+            "Η κυβέρνηση εκτιμά ότι ο τουρισμός θα στηρίξει την ανάπτυξη της οικονομίας.\n";
+
+    @Rule
+    public DocumentFolder folder = new DocumentFolder();
+
+    @Before
+    public void createDocuments() throws IOException {
+        folder.write("a.txt", TEXT);
+        folder.write("b.txt", "Ο καιρός σήμερα θα είναι καλός στα νησιά. Η βόλτα στην παραλία είναι υπέροχη.");
+    }
+
+    private static void assertSameSummary(List<Sentence> expected, List<Sentence> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final Sentence e = expected.get(i), a = actual.get(i);
+            assertEquals(e.getText(), a.getText());
+            assertEquals(e.getTitleTermWeight(), a.getTitleTermWeight(), 1e-9);
+            assertEquals(e.getTermsWeight(), a.getTermsWeight(), 1e-9);
+            assertEquals(e.getSLWeight(), a.getSLWeight(), 1e-9);
+            assertEquals(e.getSentenceWeight(), a.getSentenceWeight(), 1e-9);
+        }
+    }
+
+    private static void assertWeights(Sentence s, double tt, double terms, double sl, double weight) {
+        assertEquals(tt, s.getTitleTermWeight(), 1e-9);
+        assertEquals(terms, s.getTermsWeight(), 1e-9);
+        assertEquals(sl, s.getSLWeight(), 1e-9);
+        assertEquals(weight, s.getSentenceWeight(), 1e-9);
+    }
+
+    /**
+     * The summary of the test article, indexed with the documents of the indexer tests, against the weights
+     * and sentences the summarizer gave before the sentences were scored on term ids and title term bitsets.
+     */
+    @Test
+    public void testSummaryMatchesBaseline() throws IOException {
+        final Path corpus = folder.newFolder("corpus").toPath();
+        for (String resource : new String[]{"ptuxiaki/extraction/article.txt", "ptuxiaki/indexing/test_file1.txt",
+                "ptuxiaki/indexing/test_file2.txt", "ptuxiaki/indexing/test_file3.txt"}) {
+            try (InputStream is = SummarizerTest.class.getClassLoader().getResourceAsStream(resource)) {
+                Files.copy(is, corpus.resolve(resource.substring(resource.lastIndexOf('/') + 1)));
+            }
+        }
+        // SentenceUtils adds its stop words to the default stop set of GreekAnalyzer when it is loaded,
+        // load it before indexing so that the index is the same whichever tests ran before
+        SentenceUtils.removeWhiteSpaces("");
+        try (Summarizer summarizer = new Summarizer(new Indexer(folder.indexDir()))) {
+            assertTrue(summarizer.indexDirectory(corpus));
+            final List<Sentence> summary = summarizer.summarize(corpus.resolve("article.txt"));
+            assertEquals(4, summary.size());
+            assertEquals("Οικονομία και ανάπτυξη", summary.get(0).getText().trim());
+            assertWeights(summary.get(0), -10, -10, -10, 0);
+            assertEquals("Η ελληνική οικονομία παρουσίασε σημάδια ανάκαμψης κατά το πρώτο τρίμηνο του έτους.",
+                    summary.get(1).getText().trim());
+            assertWeights(summary.get(1), 0.5785578521428745, 0.042498352329032645, 0.8333333333333334, 1.4543895378052405);
+            assertEquals("Ο υπουργός Οικονομικών δήλωσε ότι η ανάπτυξη θα συνεχιστεί και τους επόμενους μήνες.",
+                    summary.get(2).getText().trim());
+            assertWeights(summary.get(2), 0.8, 0.038956822968279924, 0.2777777777777778, 1.116734600746058);
+            assertEquals("Οι επενδύσεις στον τουρισμό", summary.get(3).getText().trim());
+            assertWeights(summary.get(3), -10, -10, -10, 0);
+        }
+    }
+
+    @Test
+    public void testInMemorySummaryMatchesIndexedDocument() throws IOException {
+        try (Summarizer summarizer = new Summarizer(new Indexer(folder.indexDir()))) {
+            assertTrue(summarizer.indexDirectory(folder.docs()));
+            final List<Sentence> indexed = summarizer.summarize(folder.doc("a.txt"));
+            assertFalse(indexed.isEmpty());
+            assertSameSummary(indexed, summarizer.summarize(TEXT));
+            assertSameSummary(indexed, summarizer.summarize(new ByteArrayInputStream(TEXT.getBytes(StandardCharsets.UTF_8))));
+        }
+    }
+
+    @Test
+    public void testSummaryWithoutIndex() throws IOException {
+        try (Summarizer summarizer = new Summarizer(new Indexer(folder.indexDir()))) {
+            final List<Sentence> summary = summarizer.summarize(TEXT);
+            assertTrue(summary.stream().anyMatch(s -> !s.isTitle() && !s.isSubTitle()));
+            for (Sentence s : summary) {
+                assertFalse(Double.isInfinite(s.getTermsWeight()) || Double.isNaN(s.getTermsWeight()));
+                assertFalse(Double.isInfinite(s.getSentenceWeight()) || Double.isNaN(s.getSentenceWeight()));
+            }
+        }
+    }
+
+    @Test
+    public void testFileOutsideTheIndexHasTermsWeight() throws IOException {
+        final Path outside = folder.newFolder("outside").toPath().resolve("a.txt");
+        Files.write(outside, TEXT.getBytes(StandardCharsets.UTF_8));
+        // an index without the text, so that its terms have an idf
+        Files.delete(folder.doc("a.txt"));
+        folder.write("c.txt", "Η ομάδα κέρδισε τον αγώνα με δύο γκολ. Οι φίλαθλοι γιόρτασαν στους δρόμους.");
+        try (Summarizer summarizer = new Summarizer(new Indexer(folder.indexDir()))) {
+            assertTrue(summarizer.indexDirectory(folder.docs()));
+            final List<Sentence> summary = summarizer.summarize(outside);
+            assertTrue(summary.stream().anyMatch(s -> !s.isTitle() && s.getTermsWeight() > 0));
+            assertSameSummary(summarizer.summarize(TEXT), summary);
+        }
+    }
+
+    @Test
+    public void testDocumentLongerThanWriteLimitIsSummarizedWhole() throws IOException {
+        final StringBuilder text = new StringBuilder(TEXT);
+        for (int i = 1; text.length() <= Conf.instance().writeLimit(); i++) {
+            text.append("\nΗ έκθεση ").append(i).append(" της τράπεζας δείχνει ότι η οικονομία αναπτύσσεται. ")
+                    .append("Οι επενδύσεις στην περιφέρεια ").append(i).append(" αυξήθηκαν σημαντικά.\n");
+        }
+        text.append("\nΣτο τέλος της έκθεσης η οικονομία, η ανάπτυξη και οι επενδύσεις συνοψίζονται ξανά.\n");
+        folder.write("long.txt", text.toString());
+        final Path file = folder.doc("long.txt");
+        final Indexer indexer = new Indexer(folder.indexDir());
+        try (Summarizer summarizer = new Summarizer(indexer)) {
+            assertTrue(summarizer.indexDirectory(folder.docs()));
+            // the index keeps the text up to the limit only
+            assertTrue(indexer.storedContents(file).length() < text.length());
+            final List<Sentence> summary = summarizer.summarize(file);
+            assertSameSummary(summarizer.summarize(text.toString()), summary);
+        }
+    }
+
+    @Test
+    public void testSameNameInDifferentDirectories() throws IOException {
+        folder.write("one/news.txt", TEXT);
+        folder.write("two/news.txt", TEXT.replace("Οικονομία και ανάπτυξη", "Τουρισμός και επενδύσεις"));
+        final Path out = folder.newFolder("summaries").toPath();
+        final Path zip = folder.getRoot().toPath().resolve("summaries.zip");
+        try (Summarizer summarizer = new Summarizer(new Indexer(folder.indexDir()))) {
+            try (SummarySink sink = new FileSummarySink(out)) {
+                summarizer.summarizeDirectory(folder.docs(), sink);
+            }
+            try (SummarySink sink = new ZipSummarySink(zip)) {
+                summarizer.summarizeDirectory(folder.docs(), sink);
+            }
+        }
+        final String suffix = "_summary_" + Conf.instance().stemmerClass() + "_" + Conf.instance().sentenceWeight()
+                + "_" + Conf.instance().paragraphWeight();
+        final List<String> one = Files.readAllLines(out.resolve("one").resolve("news.txt" + suffix), StandardCharsets.UTF_8);
+        final List<String> two = Files.readAllLines(out.resolve("two").resolve("news.txt" + suffix), StandardCharsets.UTF_8);
+        assertTrue(one.contains("Οικονομία και ανάπτυξη"));
+        assertTrue(two.contains("Τουρισμός και επενδύσεις"));
+        assertFalse(two.contains("Οικονομία και ανάπτυξη"));
+        assertTrue(Files.exists(out.resolve("a.txt" + suffix)));
+        try (ZipFile entries = new ZipFile(zip.toFile())) {
+            assertEquals(4, entries.size());
+            assertNotNull(entries.getEntry("one/news.txt" + suffix));
+            assertNotNull(entries.getEntry("two/news.txt" + suffix));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ptuxiaki;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import ptuxiaki.datastructures.Sentence;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SummarySinkTest {
+    private static final List<Sentence> SUMMARY = Arrays.asList(
+            new Sentence(" Η ελληνική οικονομία παρουσίασε σημάδια ανάκαμψης. ", 1),
+            new Sentence("Ο υπουργός δήλωσε \"η ανάπτυξη θα συνεχιστεί\".\n", 3));
+
+    static {
+        final Sentence s = SUMMARY.get(0);
+        s.setTitleTermWeight(0.5);
+        s.setTermsWeight(0.25);
+        s.setSLWeight(1);
+        s.compositeWeight(1, 1, 1);
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testAsyncWritesEverySummaryInOrder() throws IOException {
+        final Path file = folder.getRoot().toPath().resolve("out").resolve("summaries.jsonl");
+        try (SummarySink sink = new AsyncSummarySink(new JsonlSummarySink(file), 4)) {
+            for (int i = 0; i < 100; i++) {
+                sink.accept("doc" + i, SUMMARY);
+            }
+            assertFalse(Files.exists(file));
+        }
+        final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(100, lines.size());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(lines.get(i).startsWith("{\"summary\":\"doc" + i + "\","));
+        }
+        assertEquals("{\"summary\":\"doc0\",\"sentences\":[" +
+                "{\"position\":1,\"positionInParagraph\":0,\"type\":\"Sentence\",\"titleTermWeight\":0.5," +
+                "\"termsWeight\":0.25,\"locationWeight\":1.0,\"sentenceWeight\":1.75," +
+                "\"text\":\"Η ελληνική οικονομία παρουσίασε σημάδια ανάκαμψης.\"}," +
+                "{\"position\":3,\"positionInParagraph\":0,\"type\":\"Sentence\",\"titleTermWeight\":-10.0," +
+                "\"termsWeight\":-10.0,\"locationWeight\":-10.0,\"sentenceWeight\":0.0," +
+                "\"text\":\"Ο υπουργός δήλωσε \\\"η ανάπτυξη θα συνεχιστεί\\\".\"}]}", lines.get(0));
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void testZipHasAnEntryPerSummary() throws IOException {
+        final Path file = folder.getRoot().toPath().resolve("summaries.zip");
+        try (SummarySink sink = new AsyncSummarySink(new ZipSummarySink(file), 16)) {
+            sink.accept("a.txt_summary", SUMMARY);
+            sink.accept("b.txt_summary", SUMMARY.subList(0, 1));
+        }
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            assertEquals(2, zip.size());
+            final ZipEntry b = zip.getEntry("b.txt_summary");
+            final byte[] bytes = new byte[(int) b.getSize()];
+            assertEquals(bytes.length, zip.getInputStream(b).read(bytes));
+            assertEquals("Η ελληνική οικονομία παρουσίασε σημάδια ανάκαμψης." + System.lineSeparator(),
+                    new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testFilesMatchTheZipEntries() throws IOException {
+        final Path dir = folder.getRoot().toPath().resolve("summaries");
+        try (SummarySink sink = new AsyncSummarySink(new FileSummarySink(dir), 1)) {
+            sink.accept("a.txt_summary", SUMMARY);
+        }
+        assertEquals(Arrays.asList("Η ελληνική οικονομία παρουσίασε σημάδια ανάκαμψης.",
+                "Ο υπουργός δήλωσε \"η ανάπτυξη θα συνεχιστεί\"."),
+                Files.readAllLines(dir.resolve("a.txt_summary"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testAbortKeepsThePreviousArchive() throws IOException {
+        final Path file = folder.getRoot().toPath().resolve("summaries.jsonl");
+        try (SummarySink sink = new JsonlSummarySink(file)) {
+            sink.accept("previous", SUMMARY);
+        }
+        final List<String> previous = Files.readAllLines(file, StandardCharsets.UTF_8);
+
+        final List<String> written = new ArrayList<>();
+        final SummarySink sink = new AsyncSummarySink(new JsonlSummarySink(file), 4, written::add);
+        sink.accept("partial", SUMMARY);
+        sink.abort();
+        sink.close();
+        assertEquals(previous, Files.readAllLines(file, StandardCharsets.UTF_8));
+        assertTrue(written.size() <= 1);
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void testWrittenSummariesAreReported() throws IOException {
+        final List<String> written = Collections.synchronizedList(new ArrayList<>());
+        try (SummarySink sink = new AsyncSummarySink(new FileSummarySink(folder.getRoot().toPath()), 2, written::add)) {
+            sink.accept("a.txt_summary", SUMMARY);
+            sink.accept("b.txt_summary", SUMMARY);
+        }
+        assertEquals(Arrays.asList("a.txt_summary", "b.txt_summary"), written);
+    }
+
+    @Test(expected = IOException.class)
+    public void testClosedSinkRejectsSummaries() throws IOException {
+        final SummarySink sink = new AsyncSummarySink(new FileSummarySink(folder.getRoot().toPath()), 1);
+        sink.close();
+        sink.accept("a.txt_summary", SUMMARY);
+    }
+}
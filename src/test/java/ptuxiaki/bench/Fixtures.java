@@ -0,0 +1,59 @@
+package ptuxiaki.bench;
+
+import ptuxiaki.datastructures.Conf;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Set up shared by the benchmarks of this package.
+ */
+final class Fixtures {
+    /**
+     * The seed of every {@link SyntheticCorpus}, so that each run measures the same text.
+     */
+    static final long SEED = 20190401L;
+
+    private Fixtures() {
+    }
+
+    /**
+     * <p>Configure the program with its default properties and the given stemmer.
+     *
+     * <p>{@link Conf} is created once per JVM, this works because every benchmark and every
+     * parameter combination runs in its own fork.
+     * @param stemmer {@link ptuxiaki.utils.PropertyKey#LUCESTEMMER} or {@link ptuxiaki.utils.PropertyKey#NNKSTEMER}
+     */
+    static Conf configure(final String stemmer) {
+        // the defaults of App
+        final Properties p = new Properties();
+        p.put("wsl", "1.0");
+        p.put("wst", "1.0");
+        p.put("wtt", "1.0");
+        p.put("minimumWords", "4");
+        p.put("compress", "80");
+        p.put("sw", "idf");
+        p.put("pw", "nar");
+        p.put("stemmer", stemmer);
+        p.put("showTitles", "true");
+        p.put("threads", "1");
+        return Conf.instance(p);
+    }
+
+    static Path tempDir(final String prefix) throws IOException {
+        return Files.createTempDirectory(prefix);
+    }
+
+    static void delete(final Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+    }
+}
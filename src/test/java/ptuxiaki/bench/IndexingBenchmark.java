@@ -0,0 +1,78 @@
+package ptuxiaki.bench;
+
+import org.openjdk.jmh.annotations.*;
+import ptuxiaki.indexing.Indexer;
+import ptuxiaki.utils.PropertyKey;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Indexing a directory of documents from scratch, and bringing an index up to date
+ * with a directory where nothing changed.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndexingBenchmark {
+
+    @Param({"200"})
+    public int documents;
+
+    @Param({"50"})
+    public int sentences;
+
+    @Param({PropertyKey.LUCESTEMMER, PropertyKey.NNKSTEMER})
+    public String stemmer;
+
+    private Path corpus;
+    private Path upToDate;
+    private Path index;
+
+    @Setup(Level.Trial)
+    public void createCorpus() throws IOException {
+        Fixtures.configure(stemmer);
+        corpus = Fixtures.tempDir("corpus");
+        new SyntheticCorpus(Fixtures.SEED).write(corpus, documents, sentences);
+        upToDate = Fixtures.tempDir("index");
+        try (Indexer indexer = new Indexer(upToDate.toString())) {
+            indexer.indexDirectory(corpus.toString());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createIndexDirectory() throws IOException {
+        index = Fixtures.tempDir("index");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteIndexDirectory() throws IOException {
+        Fixtures.delete(index);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCorpus() throws IOException {
+        Fixtures.delete(corpus);
+        Fixtures.delete(upToDate);
+    }
+
+    @Benchmark
+    public int indexDirectory() throws IOException {
+        try (Indexer indexer = new Indexer(index.toString())) {
+            indexer.indexDirectory(corpus.toString());
+            return indexer.numDocs();
+        }
+    }
+
+    @Benchmark
+    public int reindexUnchanged() throws IOException {
+        try (Indexer indexer = new Indexer(upToDate.toString())) {
+            indexer.indexDirectory(corpus.toString());
+            return indexer.numDocs();
+        }
+    }
+}
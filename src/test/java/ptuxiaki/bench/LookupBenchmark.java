@@ -0,0 +1,107 @@
+package ptuxiaki.bench;
+
+import org.openjdk.jmh.annotations.*;
+import ptuxiaki.datastructures.Sentence;
+import ptuxiaki.datastructures.TermDictionary;
+import ptuxiaki.extraction.TextExtractor;
+import ptuxiaki.indexing.Indexer;
+import ptuxiaki.indexing.TermFrequencies;
+import ptuxiaki.utils.PropertyKey;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The tf and idf lookups done for every summarized document, on an index of synthetic documents.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LookupBenchmark {
+
+    @Param({"200"})
+    public int documents;
+
+    @Param({"50"})
+    public int sentences;
+
+    private Path corpus;
+    private Path index;
+    private Indexer indexer;
+
+    private Path file;
+    private TermDictionary dictionary;
+    private String term;
+
+    @Setup
+    public void setUp() throws IOException {
+        Fixtures.configure(PropertyKey.LUCESTEMMER);
+        corpus = Fixtures.tempDir("corpus");
+        final List<Path> files = new SyntheticCorpus(Fixtures.SEED).write(corpus, documents, sentences);
+        index = Fixtures.tempDir("index");
+        indexer = new Indexer(index.toString());
+        indexer.indexDirectory(corpus.toString());
+
+        // the terms of one document, as the summarizer looks them up
+        file = files.get(0);
+        dictionary = new TermDictionary();
+        final String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        new TextExtractor().extractParagraphs(text).forEach(p -> {
+            for (Sentence s : p.getAllSentences()) {
+                s.bindTerms(dictionary);
+            }
+        });
+        term = dictionary.term(dictionary.size() / 2);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        indexer.close();
+        Fixtures.delete(corpus);
+        Fixtures.delete(index);
+    }
+
+    /**
+     * The term frequency table of a document, built once per summarized document.
+     */
+    @Benchmark
+    public TermFrequencies termFrequencies() {
+        return indexer.termFrequencies(file);
+    }
+
+    /**
+     * The tf of every term of a document from its table.
+     */
+    @Benchmark
+    public double[] tfDictionary() {
+        return indexer.termFrequencies(file).tf(dictionary);
+    }
+
+    /**
+     * A single tf lookup that builds the table of the document, the way the older code looked up every word.
+     */
+    @Benchmark
+    public double tfTerm() {
+        return indexer.tf(term, file);
+    }
+
+    /**
+     * The idf of every term of a document, with the document frequency cache warm.
+     */
+    @Benchmark
+    public double[] idfDictionary() {
+        return indexer.idf(dictionary);
+    }
+
+    @Benchmark
+    public double idfTerm() {
+        return indexer.idf(term);
+    }
+}
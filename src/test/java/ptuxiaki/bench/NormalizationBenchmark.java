@@ -0,0 +1,60 @@
+package ptuxiaki.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ptuxiaki.utils.GreekNormalizer;
+import ptuxiaki.utils.SentenceUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static ptuxiaki.utils.SentenceUtils.*;
+
+/**
+ * Lower casing, accent and punctuation removal and splitting to words of a sentence,
+ * with the single scan {@link GreekNormalizer} and with the chain of regular expressions of
+ * {@link SentenceUtils} it replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class NormalizationBenchmark {
+    private static final int SENTENCES = 1000;
+
+    private final GreekNormalizer normalizer = new GreekNormalizer();
+    private String[] sentences;
+
+    @Setup
+    public void setUp() {
+        final SyntheticCorpus corpus = new SyntheticCorpus(Fixtures.SEED);
+        sentences = new String[SENTENCES];
+        for (int i = 0; i < SENTENCES; i++) {
+            sentences[i] = corpus.sentence();
+        }
+    }
+
+    /**
+     * @return the time per sentence
+     */
+    @Benchmark
+    @OperationsPerInvocation(SENTENCES)
+    public void normalize(Blackhole bh) {
+        for (String s : sentences) {
+            bh.consume(normalizer.normalize(s));
+            bh.consume(normalizer.buffer());
+        }
+    }
+
+    /**
+     * @return the time per sentence
+     */
+    @Benchmark
+    @OperationsPerInvocation(SENTENCES)
+    public void legacyNormalize(Blackhole bh) {
+        for (String s : sentences) {
+            bh.consume(removeWhiteSpaces(replaceSigma(removeTonation(removeNumbers(removeSpecialChars(s.toLowerCase()))))).split("\\s+"));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ptuxiaki.bench;
+
+import org.openjdk.jmh.annotations.*;
+import ptuxiaki.datastructures.Paragraph;
+import ptuxiaki.extraction.TextExtractor;
+import ptuxiaki.utils.PropertyKey;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splitting the text of a document to paragraphs and sentences, which also stems every sentence.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SegmentationBenchmark {
+
+    @Param({"50", "500", "5000"})
+    public int sentences;
+
+    private String document;
+
+    @Setup
+    public void setUp() {
+        Fixtures.configure(PropertyKey.LUCESTEMMER);
+        document = new SyntheticCorpus(Fixtures.SEED).document(sentences);
+    }
+
+    @Benchmark
+    public List<Paragraph> extractParagraphs() {
+        return new TextExtractor().extractParagraphs(document);
+    }
+}
@@ -0,0 +1,119 @@
+package ptuxiaki.bench;
+
+import nnkstemmer.word_node;
+import org.apache.lucene.analysis.el.GreekStemmer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ptuxiaki.utils.GreekNormalizer;
+import ptuxiaki.utils.PropertyKey;
+import ptuxiaki.utils.SentenceUtils;
+import stemmer.NNKStemmerAdapter;
+import stemmer.StemCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static nnkstemmer.nnkstem.rswas;
+
+/**
+ * <p>Both stemmers on their own, a word at a time, and the whole sentence stemming of
+ * {@link SentenceUtils#stemSentence(String)} with its normalization, stop word removal and stem cache.
+ *
+ * <p>{@code synchronized} is the NNK adapter as it was before {@link NNKStemmerAdapter} became reentrant,
+ * sharing one static word list between all callers, the sentences are stemmed with the NNK stemmer then.
+ * {@code stemWordsThreaded} shows what that costs when four threads stem at once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StemmerBenchmark {
+    private static final int SENTENCES = 1000;
+    private static final String SYNCHRONIZED = "synchronized";
+
+    @Param({PropertyKey.LUCESTEMMER, PropertyKey.NNKSTEMER, SYNCHRONIZED})
+    public String stemmer;
+
+    private String[] sentences;
+    private char[][] words;
+    private char[] scratch = new char[64];
+    private StemCache.Stemmer uncached;
+
+    /**
+     * The NNK adapter before it became reentrant.
+     */
+    static class SynchronizedNNKAdapter {
+        static ArrayList<word_node> words = new ArrayList<>();
+
+        static synchronized int stemWord(char[] data, int size) {
+            words.add(new word_node(String.valueOf(data, 0, size)));
+            rswas(words);
+            final word_node wn = words.remove(0);
+            if (wn.getType() == word_node.ShortWord || wn.getType() == word_node.StopWord || wn.getType() == word_node.CodeWord) {
+                return 0;
+            }
+            return (wn.getNormalized() == null) ? wn.getWord().length() : wn.getNormalized().length();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Fixtures.configure(stemmer.equals(SYNCHRONIZED) ? PropertyKey.NNKSTEMER : stemmer);
+        final SyntheticCorpus corpus = new SyntheticCorpus(Fixtures.SEED);
+        sentences = new String[SENTENCES];
+        final GreekNormalizer normalizer = new GreekNormalizer();
+        final List<char[]> normalized = new ArrayList<>();
+        for (int i = 0; i < SENTENCES; i++) {
+            sentences[i] = corpus.sentence();
+            final int n = normalizer.normalize(sentences[i]);
+            for (int w = 0; w < n; w++) {
+                normalized.add(normalizer.word(w).toCharArray());
+            }
+        }
+        words = normalized.toArray(new char[0][]);
+        switch (stemmer) {
+            case PropertyKey.NNKSTEMER:
+                uncached = new NNKStemmerAdapter()::stem;
+                break;
+            case SYNCHRONIZED:
+                uncached = SynchronizedNNKAdapter::stemWord;
+                break;
+            default:
+                uncached = new GreekStemmer()::stem;
+        }
+    }
+
+    /**
+     * Every word of the sentences, without the stem cache.
+     */
+    @Benchmark
+    public int stemWords() {
+        int sum = 0;
+        for (char[] w : words) {
+            // the stemmers work in place
+            System.arraycopy(w, 0, scratch, 0, w.length);
+            sum += uncached.stem(scratch, w.length);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int stemWordsThreaded() {
+        return stemWords();
+    }
+
+    /**
+     * @return the time per sentence
+     */
+    @Benchmark
+    @OperationsPerInvocation(SENTENCES)
+    public void stemSentence(Blackhole bh) {
+        for (String s : sentences) {
+            bh.consume(SentenceUtils.stemSentence(s));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ptuxiaki.bench;
+
+import org.openjdk.jmh.annotations.*;
+import ptuxiaki.Summarizer;
+import ptuxiaki.datastructures.Sentence;
+import ptuxiaki.indexing.Indexer;
+import ptuxiaki.utils.PropertyKey;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Summarization of a single document from start to end, at various document sizes.
+ *
+ * <p>The document is part of an indexed corpus of smaller documents. It is summarized both as an indexed
+ * file, with its text and term frequencies read from the index, and as a text given in memory that is
+ * segmented and analyzed on every call. Nothing is written to disk in either case.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SummarizationBenchmark {
+
+    @Param({"50", "500", "5000"})
+    public int sentences;
+
+    @Param({PropertyKey.LUCESTEMMER, PropertyKey.NNKSTEMER})
+    public String stemmer;
+
+    private Path corpus;
+    private Path index;
+    private Summarizer summarizer;
+
+    private Path file;
+    private String text;
+
+    @Setup
+    public void setUp() throws IOException {
+        Fixtures.configure(stemmer);
+        final SyntheticCorpus generator = new SyntheticCorpus(Fixtures.SEED);
+        corpus = Fixtures.tempDir("corpus");
+        generator.write(corpus, 100, 50);
+        text = generator.document(sentences);
+        file = corpus.resolve("document.txt");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+
+        index = Fixtures.tempDir("index");
+        summarizer = new Summarizer(new Indexer(index.toString()));
+        summarizer.indexDirectory(corpus);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        summarizer.close();
+        Fixtures.delete(corpus);
+        Fixtures.delete(index);
+    }
+
+    @Benchmark
+    public List<Sentence> summarizeIndexed() throws IOException {
+        return summarizer.summarize(file);
+    }
+
+    @Benchmark
+    public List<Sentence> summarizeText() throws IOException {
+        return summarizer.summarize(text);
+    }
+}
@@ -0,0 +1,124 @@
+package ptuxiaki.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>Generates Greek news like documents for the benchmarks.
+ *
+ * <p>The words are drawn from a fixed vocabulary of inflected nouns, verbs, adjectives and stop words
+ * with a skewed distribution, the first words are much more frequent than the last ones as in natural text,
+ * so the stem and document frequency caches see a realistic mix of hits and misses. Sentences have accents,
+ * capitals, numbers, commas and quotes so that every step of the normalization is exercised.
+ *
+ * <p>The same seed always generates the same corpus, so results of different runs are comparable.
+ */
+public final class SyntheticCorpus {
+
+    private static final String[] WORDS = {
+            "και", "το", "η", "ο", "της", "του", "τα", "των", "στην", "στο", "με", "για", "που", "από", "σε",
+            "οι", "τον", "την", "θα", "ότι", "είναι", "ένα", "μια", "στα", "στις", "τους", "αλλά", "όπως", "μετά",
+            "οικονομία", "οικονομίας", "ανάπτυξη", "ανάπτυξης", "κυβέρνηση", "κυβέρνησης", "υπουργός", "υπουργού",
+            "επενδύσεις", "επενδύσεων", "τουρισμός", "τουρισμού", "εταιρεία", "εταιρείες", "εταιρειών", "αγορά",
+            "αγοράς", "τράπεζα", "τράπεζες", "τραπεζών", "χώρα", "χώρας", "πολίτες", "πολιτών", "εργαζόμενοι",
+            "εργαζομένων", "μισθοί", "μισθών", "φόροι", "φόρων", "προϋπολογισμός", "προϋπολογισμού", "έλλειμμα",
+            "χρέος", "χρέους", "εξαγωγές", "εξαγωγών", "εισαγωγές", "ενέργεια", "ενέργειας", "τιμές", "τιμών",
+            "πληθωρισμός", "πληθωρισμού", "ανεργία", "ανεργίας", "περιφέρεια", "περιφέρειας", "δήμος", "δήμου",
+            "νησιά", "νησιών", "λιμάνι", "λιμανιού", "καιρός", "καιρού", "θερμοκρασία", "βροχές", "άνεμοι",
+            "σχολεία", "μαθητές", "μαθητών", "νοσοκομείο", "νοσοκομεία", "γιατροί", "ασθενείς", "έργα", "έργων",
+            "ανακοίνωσε", "δήλωσε", "παρουσίασε", "αυξήθηκε", "μειώθηκε", "εκτιμά", "αναμένεται", "συνεχίζεται",
+            "προβλέπει", "υπογράφηκε", "εγκρίθηκε", "ξεκινά", "ολοκληρώθηκε", "χρηματοδοτεί", "στηρίζει",
+            "ανακοινώνουν", "αυξάνονται", "μειώνονται", "προειδοποιεί", "επισκέφθηκε", "συζήτησαν", "αποφάσισε",
+            "ελληνική", "ελληνικής", "ευρωπαϊκή", "ευρωπαϊκής", "νέα", "νέο", "νέες", "μεγάλη", "μεγάλο", "μεγάλες",
+            "σημαντική", "σημαντικό", "σημαντικές", "οικονομική", "οικονομικό", "κοινωνική", "δημόσια", "δημόσιο",
+            "ιδιωτικός", "ιδιωτικού", "τοπικές", "τοπική", "ισχυρή", "ισχυροί", "σταθερή", "σταθερά", "πρώτο",
+            "πρώτη", "τελευταία", "επόμενους", "μήνες", "χρόνια", "τρίμηνο", "έτος", "έτους", "εβδομάδα", "σήμερα",
+            "χθες", "αύριο", "Αθήνα", "Αθήνας", "Θεσσαλονίκη", "Θεσσαλονίκης", "Κρήτη", "Αιγαίο", "Αιγαίου",
+            "Βρυξέλλες", "ΕΛΣΤΑΤ", "ΑΕΠ", "ευρώ", "εκατομμύρια", "δισεκατομμύρια", "ποσοστό", "μονάδες"
+    };
+
+    private static final String[] TITLE_WORDS = {
+            "Οικονομία", "Ανάπτυξη", "Τουρισμός", "Επενδύσεις", "Καιρός", "Ενέργεια", "Παιδεία", "Υγεία",
+            "Αγορά", "Τράπεζες", "Περιφέρεια", "Εξαγωγές"
+    };
+
+    private final Random random;
+
+    public SyntheticCorpus(final long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * A word of the vocabulary, with probability roughly proportional to 1 / rank.
+     */
+    public String word() {
+        final int rank = (int) Math.pow(WORDS.length + 1, random.nextDouble()) - 1;
+        return WORDS[Math.min(rank, WORDS.length - 1)];
+    }
+
+    /**
+     * A sentence of 6 to 25 words ending with a full stop.
+     */
+    public String sentence() {
+        final int words = 6 + random.nextInt(20);
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(random.nextInt(12) == 0 ? ", " : " ");
+            }
+            final int r = random.nextInt(40);
+            if (r == 0) {
+                sb.append(1 + random.nextInt(2020));
+            } else if (r == 1) {
+                sb.append('«').append(word()).append('»');
+            } else {
+                sb.append(word());
+            }
+        }
+        sb.setCharAt(0, Character.toUpperCase(sb.charAt(0)));
+        return sb.append('.').toString();
+    }
+
+    /**
+     * A document with a title followed by paragraphs of 1 to 6 sentences, one paragraph per line,
+     * the layout {@link ptuxiaki.extraction.TextExtractor#extractParagraphs(String)} expects.
+     * @param sentences the number of sentences of the document, the title excluded
+     */
+    public String document(final int sentences) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]).append(" και ").append(word()).append('\n');
+        int left = sentences;
+        while (left > 0) {
+            final int n = Math.min(left, 1 + random.nextInt(6));
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    sb.append(' ');
+                }
+                sb.append(sentence());
+            }
+            sb.append('\n');
+            left -= n;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write {@code documents} documents of {@code sentences} sentences each in {@code dir}.
+     * @return the files written
+     */
+    public List<Path> write(final Path dir, final int documents, final int sentences) throws IOException {
+        Files.createDirectories(dir);
+        final List<Path> files = new ArrayList<>(documents);
+        for (int i = 0; i < documents; i++) {
+            final Path file = dir.resolve(String.format("doc%05d.txt", i));
+            Files.write(file, document(sentences).getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+        return files;
+    }
+}
@@ -0,0 +1,67 @@
+package ptuxiaki.bench;
+
+import org.openjdk.jmh.annotations.*;
+import ptuxiaki.datastructures.Sentence;
+import ptuxiaki.utils.TopK;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares selecting the summary sentences with {@link TopK} against sorting all of them
+ * and taking the first ones, as the summarizer did before, on a 50k sentences document.
+ * {@code keep} is the percentage of the sentences that end up in the summary.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopKBenchmark {
+
+    @Param({"50000"})
+    public int sentences;
+
+    @Param({"1", "5", "20"})
+    public int keep;
+
+    private List<Sentence> document;
+    private int k;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(7);
+        document = new ArrayList<>(sentences);
+        for (int i = 0; i < sentences; i++) {
+            // the text does not matter, the sentences are ranked on their weights only
+            Sentence s = new Sentence("σ", i);
+            s.setTermsWeight(random.nextDouble());
+            s.setTitleTermWeight(random.nextInt(4));
+            s.setSLWeight(random.nextDouble());
+            s.compositeWeight(1, 1, 1);
+            document.add(s);
+        }
+        k = sentences * keep / 100;
+    }
+
+    @Benchmark
+    public List<Sentence> fullSort() {
+        // copy so that the document stays in position order, as TopK leaves it
+        List<Sentence> sorted = new ArrayList<>(document);
+        sorted.sort(Comparator.reverseOrder());
+        List<Sentence> selected = new ArrayList<>(sorted.subList(0, k));
+        selected.sort(Comparator.comparingInt(Sentence::getPosition));
+        return selected;
+    }
+
+    @Benchmark
+    public List<Sentence> topK() {
+        List<Sentence> selected = TopK.select(document, k, Comparator.naturalOrder());
+        selected.sort(Comparator.comparingInt(Sentence::getPosition));
+        return selected;
+    }
+}
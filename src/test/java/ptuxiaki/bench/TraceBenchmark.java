@@ -0,0 +1,140 @@
+package ptuxiaki.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ptuxiaki.datastructures.Paragraph;
+import ptuxiaki.datastructures.Sentence;
+import ptuxiaki.datastructures.TermDictionary;
+import ptuxiaki.extraction.TextExtractor;
+import ptuxiaki.utils.PropertyKey;
+import ptuxiaki.utils.Trace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>The cost of logging the weights while scoring the sentences of a 50 sentences document.
+ *
+ * <p>{@code eager} is how the scoring loop logged before, formatting every message with {@link String#format}
+ * and passing it to {@code LOG.info} whatever the level. {@code guarded} is how it logs now to the {@link Trace}
+ * logger, checking the level once and building the messages only when they are written.
+ *
+ * <p>{@code output} is where the messages go: {@code off} the logger is off, which is the default,
+ * {@code file} a file appender written by the scoring thread and {@code async} the same file behind an
+ * asynchronous appender, as {@link Trace#enable()} writes the trace.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TraceBenchmark {
+    private static final Logger EAGER = LoggerFactory.getLogger("bench.eager");
+    private static final Logger TRACE = Trace.logger();
+
+    @Param({"off", "file", "async"})
+    public String output;
+
+    private Path dir;
+    private Appender<ILoggingEvent> appender;
+
+    private List<Sentence> sentences;
+    private TermDictionary dictionary;
+    private double[] tfs;
+    private double[] idfs;
+
+    @Setup
+    public void setUp() throws IOException {
+        Fixtures.configure(PropertyKey.LUCESTEMMER);
+        final String text = new SyntheticCorpus(Fixtures.SEED).document(50);
+        sentences = new ArrayList<>();
+        dictionary = new TermDictionary();
+        for (Paragraph p : new TextExtractor().extractParagraphs(text)) {
+            for (Sentence s : p.getAllSentences()) {
+                s.bindTerms(dictionary);
+                sentences.add(s);
+            }
+        }
+        final Random random = new Random(Fixtures.SEED);
+        tfs = new double[dictionary.size()];
+        idfs = new double[dictionary.size()];
+        for (int i = 0; i < tfs.length; i++) {
+            tfs[i] = random.nextDouble() / 10;
+            idfs[i] = random.nextDouble() * 3;
+        }
+
+        dir = Fixtures.tempDir("trace");
+        final Level level = output.equals("off") ? Level.OFF : Level.TRACE;
+        if (level != Level.OFF) {
+            appender = Trace.appender(dir.resolve("trace.log").toString(), output.equals("async"));
+        }
+        for (Logger logger : new Logger[]{EAGER, TRACE}) {
+            final ch.qos.logback.classic.Logger l = (ch.qos.logback.classic.Logger) logger;
+            l.detachAndStopAllAppenders();
+            l.setAdditive(false);
+            l.setLevel(level);
+            if (appender != null) {
+                l.addAppender(appender);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (appender != null) {
+            appender.stop();
+        }
+        Fixtures.delete(dir);
+    }
+
+    @Benchmark
+    public double eager() {
+        double total = 0;
+        for (Sentence s : sentences) {
+            EAGER.info(String.format("sentence: %s tfIdf: %f", s, 0.0));
+            double sum = 0;
+            for (int id : s.getTermIds()) {
+                EAGER.info(String.format("\tword: %s tf: %f %s: %f", dictionary.term(id), tfs[id], "idf", idfs[id]));
+                sum += tfs[id] * idfs[id];
+            }
+            s.setTermsWeight(sum);
+            EAGER.info(String.format("sentence: %s tt: %f", s.getStemmedTermsAsList(), s.getTitleTermWeight()));
+            total += sum;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double guarded() {
+        double total = 0;
+        final boolean debug = TRACE.isDebugEnabled();
+        for (Sentence s : sentences) {
+            if (debug) {
+                TRACE.debug(String.format("sentence: %s tfIdf: %f", s, 0.0));
+            }
+            double sum = 0;
+            final boolean trace = TRACE.isTraceEnabled();
+            for (int id : s.getTermIds()) {
+                if (trace) {
+                    TRACE.trace(String.format("\tword: %s tf: %f %s: %f", dictionary.term(id), tfs[id], "idf", idfs[id]));
+                }
+                sum += tfs[id] * idfs[id];
+            }
+            s.setTermsWeight(sum);
+            if (debug) {
+                TRACE.debug(String.format("sentence: %s tt: %f", s.getStemmedTermsAsList(), s.getTitleTermWeight()));
+            }
+            total += sum;
+        }
+        return total;
+    }
+}
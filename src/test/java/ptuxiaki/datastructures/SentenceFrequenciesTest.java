@@ -0,0 +1,83 @@
+package ptuxiaki.datastructures;
+
+import org.junit.Before;
+import org.junit.Test;
+import ptuxiaki.extraction.TextExtractor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.Math.log10;
+import static org.junit.Assert.assertEquals;
+
+public class SentenceFrequenciesTest {
+    private String [] fileNames = {"test_file1.txt", "test_file2.txt", "test_file3.txt"};
+
+    private List<Sentence> sentences;
+
+    private TermDictionary dictionary;
+
+    @Before
+    public void extractSentences() {
+        sentences = new ArrayList<>();
+        TextExtractor extractor = new TextExtractor();
+        for (String fileName : fileNames) {
+            String path = SentenceFrequenciesTest.class.getClassLoader().getResource("ptuxiaki/indexing/" + fileName).getPath();
+            extractor.setFile(path);
+            for (Paragraph p : extractor.extractParagraphs()) {
+                sentences.addAll(p.getAllSentences());
+            }
+        }
+        sentences.add(new Sentence("Ο καιρός σήμερα θα είναι καλός και ο καιρός αύριο θα είναι κακός.", 0, 0));
+        sentences.add(new Sentence("Η βόλτα στην παραλία με καλό καιρό είναι υπέροχη.", 1, 1));
+        dictionary = new TermDictionary();
+        sentences.forEach(s -> s.bindTerms(dictionary));
+    }
+
+    /**
+     * The sentence frequencies as they were computed by the summarizer before
+     * {@link SentenceFrequencies} was introduced, a loop over every term for every sentence.
+     */
+    private Map<String, Integer> legacyOccurrences() {
+        HashMap<String, Integer> termsOccurrences = new HashMap<>();
+        Set<String> terms = new HashSet<>();
+        sentences.forEach(s -> terms.addAll(s.getStemmedTermsAsList()));
+        terms.forEach(s -> termsOccurrences.put(s, 1));
+        for (String t : terms) {
+            for (Sentence s : sentences) {
+                if (s.getStemmedTermsAsList().contains(t)) {
+                    termsOccurrences.replace(t, termsOccurrences.get(t), termsOccurrences.get(t) + 1);
+                }
+            }
+        }
+        return termsOccurrences;
+    }
+
+    @Test
+    public void testOccurrencesMatchLegacy() {
+        Map<String, Integer> expected = legacyOccurrences();
+        SentenceFrequencies sentenceFreqs = new SentenceFrequencies(sentences, dictionary);
+        assertEquals(expected.size(), dictionary.size());
+        for (Map.Entry<String, Integer> e : expected.entrySet()) {
+            assertEquals(e.getKey(), (int) e.getValue(), sentenceFreqs.occurrences(dictionary.lookup(e.getKey())));
+        }
+        assertEquals(1, sentenceFreqs.occurrences(dictionary.lookup("ανυπαρκτ")));
+    }
+
+    @Test
+    public void testIsfMatchesLegacy() {
+        Map<String, Integer> expected = legacyOccurrences();
+        SentenceFrequencies sentenceFreqs = new SentenceFrequencies(sentences, dictionary);
+        int size = sentences.size();
+        for (Sentence s : sentences) {
+            for (int id : s.getTermIds()) {
+                String word = dictionary.term(id);
+                assertEquals(log10((double) size / expected.getOrDefault(word, 1)), sentenceFreqs.isf(id, size), 0.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ptuxiaki.extraction;
+
+import org.junit.Test;
+import ptuxiaki.datastructures.Paragraph;
+import ptuxiaki.datastructures.Sentence;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TextExtractorTest {
+
+    private String path(String resource) {
+        return TextExtractorTest.class.getClassLoader().getResource(resource).getPath();
+    }
+
+    @Test
+    public void testStreamingMatchesExtractedText() throws Exception {
+        for (String resource : new String[] {"ptuxiaki/extraction/article.txt", "ptuxiaki/indexing/test_file1.txt"}) {
+            TextExtractor extractor = new TextExtractor();
+            extractor.setFile(path(resource));
+            List<Paragraph> streamed = extractor.extractParagraphs();
+
+            String text;
+            try (InputStream is = new FileInputStream(path(resource))) {
+                text = TextExtractor.extractText(is);
+            }
+            List<Paragraph> fromText = new TextExtractor().extractParagraphs(text);
+
+            assertTrue(streamed.size() > 0);
+            assertEquals(fromText.size(), streamed.size());
+            for (int i = 0; i < streamed.size(); i++) {
+                Paragraph expected = fromText.get(i), actual = streamed.get(i);
+                assertEquals(expected.getPositionInDocument(), actual.getPositionInDocument());
+                assertEquals(expected.numberOfSentences(), actual.numberOfSentences());
+                for (int j = 0; j < actual.numberOfSentences(); j++) {
+                    Sentence e = expected.getIthSentence(j), a = actual.getIthSentence(j);
+                    assertEquals(e.getText(), a.getText());
+                    assertEquals(e.getPosition(), a.getPosition());
+                    assertEquals(e.isTitle(), a.isTitle());
+                    assertEquals(e.isSubTitle(), a.isSubTitle());
+                }
+            }
+        }
+    }
+}
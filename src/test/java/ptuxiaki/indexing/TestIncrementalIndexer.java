@@ -0,0 +1,124 @@
+package ptuxiaki.indexing;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import ptuxiaki.DocumentFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestIncrementalIndexer {
+    @Rule
+    public DocumentFolder folder = new DocumentFolder();
+
+    @Before
+    public void createDocuments() throws IOException {
+        folder.write("a.txt", "Ο καιρός σήμερα θα είναι καλός.");
+        folder.write("b.txt", "Η βόλτα στην παραλία είναι υπέροχη.");
+    }
+
+    @Test
+    public void testLookupsSeeNewCommits() throws IOException {
+        try (Indexer indexer = new Indexer(folder.indexDir())) {
+            assertTrue(indexer.indexDirectory(folder.docs().toString()));
+            assertNull(indexer.storedContents(folder.doc("c.txt")));
+            folder.write("c.txt", "Η παραλία είναι γεμάτη.");
+            assertTrue(indexer.indexDirectory(folder.docs().toString()));
+            assertEquals(3, indexer.numDocs());
+            assertTrue(indexer.storedContents(folder.doc("c.txt")).contains("γεμάτη"));
+            assertTrue(indexer.termFrequencies(folder.doc("c.txt")).totalTermFreq() > 0);
+        }
+    }
+
+    @Test
+    public void testStoredTotalTermFreqMatchesTermVector() throws IOException {
+        try (Indexer indexer = new Indexer(folder.indexDir())) {
+            assertTrue(indexer.indexDirectory(folder.docs().toString()));
+            // only a.txt has the term, whichever doc id it got
+            final double tf = indexer.tf("καιρ", 0) + indexer.tf("καιρ", 1);
+            assertTrue(tf > 0);
+            assertEquals(indexer.termFrequencies(folder.doc("a.txt")).tf("καιρ"), tf, 1e-12);
+        }
+    }
+
+    @Test
+    public void testReindexingUpdatesOnlyChanges() throws IOException {
+        Indexer indexer = new Indexer(folder.indexDir());
+        assertTrue(indexer.indexDirectory(folder.docs().toString()));
+        assertEquals(2, indexer.numDocs());
+
+        // nothing changed, nothing is added
+        indexer.close();
+        indexer = new Indexer(folder.indexDir());
+        assertTrue(indexer.indexDirectory(folder.docs().toString()));
+        assertEquals(2, indexer.numDocs());
+
+        // touched without changing the content
+        File b = folder.doc("b.txt").toFile();
+        assertTrue(b.setLastModified(b.lastModified() + 10000));
+        // modified, deleted and added files
+        folder.write("a.txt", "Ο καιρός αύριο θα είναι κακός και βροχερός.");
+        assertTrue(folder.doc("a.txt").toFile().setLastModified(b.lastModified() + 10000));
+        folder.write("c.txt", "Η παραλία είναι γεμάτη.");
+
+        indexer.close();
+        indexer = new Indexer(folder.indexDir());
+        assertTrue(indexer.indexDirectory(folder.docs().toString()));
+        assertEquals(3, indexer.numDocs());
+        assertTrue(indexer.storedContents(folder.doc("a.txt")).contains("αύριο"));
+        assertEquals(0.0, indexer.tf("σημερ", folder.doc("a.txt")), 0.0);
+        assertTrue(indexer.tf("κακ", folder.doc("a.txt")) > 0);
+
+        Files.delete(folder.doc("c.txt"));
+        indexer.close();
+        indexer = new Indexer(folder.indexDir());
+        assertTrue(indexer.indexDirectory(folder.docs().toString()));
+        assertEquals(2, indexer.numDocs());
+        assertNull(indexer.storedContents(folder.doc("c.txt")));
+        indexer.close();
+    }
+
+    @Test
+    public void testSameNameInDifferentDirectories() throws IOException {
+        folder.write("one/news.txt", "Η εθνική ομάδα κέρδισε τον αγώνα.");
+        folder.write("two/news.txt", "Ο καιρός αύριο θα είναι βροχερός.");
+        try (Indexer indexer = new Indexer(folder.indexDir())) {
+            assertTrue(indexer.indexDirectory(folder.docs().toString()));
+            assertEquals(4, indexer.numDocs());
+            assertTrue(indexer.storedContents(folder.doc("one/news.txt")).contains("ομάδα"));
+            assertTrue(indexer.storedContents(folder.doc("two/news.txt")).contains("βροχερός"));
+            assertTrue(indexer.tf("βροχερ", folder.doc("two/news.txt")) > 0);
+            assertEquals(0.0, indexer.tf("βροχερ", folder.doc("one/news.txt")), 0.0);
+            // the same file through a relative path
+            final Path relative = Paths.get("").toAbsolutePath().relativize(folder.doc("two/news.txt"));
+            assertTrue(indexer.storedContents(relative).contains("βροχερός"));
+            assertFalse(indexer.termFrequencies(folder.doc("news.txt")).totalTermFreq() > 0);
+        }
+    }
+
+    @Test
+    public void testUnreadableFileIsSkipped() throws IOException {
+        folder.write("c.txt", "Η παραλία είναι γεμάτη.");
+        final File c = folder.doc("c.txt").toFile();
+        assertTrue(c.setReadable(false));
+        // file permissions don't apply to root
+        Assume.assumeTrue(!c.canRead());
+        try (Indexer indexer = new Indexer(folder.indexDir())) {
+            assertTrue(indexer.indexDirectory(folder.docs().toString()));
+            assertEquals(2, indexer.numDocs());
+            assertNull(indexer.storedContents(folder.doc("c.txt")));
+        } finally {
+            c.setReadable(true);
+        }
+    }
+}
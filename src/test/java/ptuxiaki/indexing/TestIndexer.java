@@ -7,17 +7,23 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
 
 public class TestIndexer {
     private Indexer indexer;
+    private Path dir;
     private String [] fileNames = {"test_file1.txt", "test_file2.txt", "test_file3.txt"};
 
     @Before
     public void indexDocuments() {
         try {
             indexer = new Indexer(System.getProperty("user.home") + File.separator + "test_index");
-            if (indexer.indexExists()) return;
             String path = TestIndexer.class.getClassLoader().getResource("ptuxiaki/indexing").getPath();
+            dir = Paths.get(path);
+            if (indexer.indexExists()) return;
             indexer.indexDirectory(path);
         } catch (IOException e) {
             e.printStackTrace();
@@ -25,20 +31,25 @@ public class TestIndexer {
         }
     }
 
+    @After
+    public void closeIndex() throws IOException {
+        indexer.close();
+    }
+
     @Test
     public void testTfAndIdf() {
         double [] tfs = new double[fileNames.length];
         // word βολτ exists in one documents, 1 time
         // doc1 has 10 terms so the tf should be 0,1
         for (int i = 0; i < fileNames.length; i++) {
-            tfs[i] = indexer.tf("κακ", fileNames[i]);
+            tfs[i] = indexer.tf("κακ", dir.resolve(fileNames[i]));
         }
         Assert.assertArrayEquals(tfs, new double [] { 0.125, 0, 0 }, 0.01);
         // word βολτ exists in two documents, 1 time in each
         // doc1 has 10 terms and doc2 has 7 terms
         // so the tf should be 0,1 0,14 respectively
         for (int i = 0; i < fileNames.length; i++) {
-            tfs[i] = indexer.tf("βολτ", fileNames[i]);
+            tfs[i] = indexer.tf("βολτ", dir.resolve(fileNames[i]));
         }
         Assert.assertArrayEquals(tfs, new double [] { 0.125, 0.14, 0 }, 0.01);
 
@@ -47,4 +58,16 @@ public class TestIndexer {
             idfs[i] = indexer.idf("βολτ");
         }
     }
+
+    @Test
+    public void testBatchedIdf() {
+        List<String> terms = Arrays.asList("βολτ", "κακ", "ανυπαρκτ", "βολτ");
+        double[] idfs = indexer.idf(terms);
+        for (int i = 0; i < terms.size(); i++) {
+            Assert.assertEquals(indexer.idf(terms.get(i)), idfs[i], 0.0);
+        }
+        // βολτ exists in two of the three documents
+        Assert.assertEquals(Math.log10(3.0 / 3), idfs[0], 0.0);
+        Assert.assertEquals(Math.log10(3.0 / 1), idfs[2], 0.0);
+    }
 }
@@ -0,0 +1,81 @@
+package ptuxiaki.metrics;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTest {
+
+    @After
+    public void disable() {
+        Metrics.disable();
+        Metrics.reset();
+    }
+
+    @Test
+    public void testBuckets() {
+        for (long v = 0; v < 100000; v++) {
+            final int b = Timer.bucket(v);
+            assertTrue(Timer.lowerBound(b) <= v);
+            assertTrue(v < Timer.lowerBound(b + 1));
+        }
+        assertTrue(Timer.lowerBound(Timer.bucket(Long.MAX_VALUE)) > Long.MAX_VALUE / 2);
+    }
+
+    @Test
+    public void testPercentiles() {
+        final Timer timer = Metrics.timer("test.percentiles");
+        for (long v = 1; v <= 1000; v++) {
+            timer.record(v * 1000);
+        }
+        assertEquals(1000, timer.count());
+        assertEquals(1000000, timer.maxNanos());
+        assertEquals(500500, timer.meanNanos(), 1e-9);
+        // within the 25% of a bucket
+        assertEquals(500000, timer.percentileNanos(50), 500000 * 0.25);
+        assertEquals(990000, timer.percentileNanos(99), 990000 * 0.25);
+        assertEquals(1000000, timer.percentileNanos(100));
+    }
+
+    @Test
+    public void testDisabledRecordsNothing() {
+        final Timer timer = Metrics.timer("test.disabled");
+        final Counter counter = Metrics.counter("test.disabled");
+        final long start = timer.start();
+        assertEquals(0, start);
+        timer.stop(start);
+        counter.increment();
+        assertEquals(0, timer.count());
+        assertEquals(0, counter.count());
+
+        Metrics.enable();
+        timer.stop(timer.start());
+        counter.add(3);
+        assertEquals(1, timer.count());
+        assertEquals(3, counter.count());
+    }
+
+    @Test
+    public void testReports() throws Exception {
+        Metrics.enable();
+        Metrics.counter("test.reports").add(2);
+        Metrics.gauge("test.gauge", () -> 0.5);
+        final Map<String, Double> values = Metrics.values();
+        assertEquals(2, values.get("test.reports.count"), 0);
+        assertEquals(0.5, values.get("test.gauge"), 0);
+        final String json = Metrics.toJson(42);
+        assertTrue(json.startsWith("{\"timestamp\":42,"));
+        assertTrue(json.contains("\"test.reports.count\":2"));
+        assertFalse(json.contains("\n"));
+        assertTrue(Metrics.toCsv(42).contains("42,test.gauge,0.5000"));
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(Metrics.OBJECT_NAME)));
+    }
+}
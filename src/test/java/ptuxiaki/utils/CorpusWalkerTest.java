@@ -0,0 +1,84 @@
+package ptuxiaki.utils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class CorpusWalkerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public TemporaryFolder outside = new TemporaryFolder();
+
+    private Path root;
+
+    @Before
+    public void createTree() throws IOException {
+        root = folder.getRoot().toPath();
+        for (String file : Arrays.asList("a.txt", "b.pdf", ".directory", "write.lock", "App.class",
+                "news/c.txt", "news/old/d.txt", ".git/config")) {
+            Path p = root.resolve(file);
+            Files.createDirectories(p.getParent());
+            Files.createFile(p);
+        }
+    }
+
+    private List<String> walk(CorpusWalker walker) throws IOException {
+        List<String> files = new ArrayList<>();
+        walker.walk(f -> files.add(root.relativize(f).toString()));
+        Collections.sort(files);
+        return files;
+    }
+
+    @Test
+    public void testDefaultPatterns() throws IOException {
+        CorpusWalker walker = new CorpusWalker(root, CorpusWalker.DEFAULT_INCLUDE, CorpusWalker.DEFAULT_EXCLUDE);
+        assertEquals(Arrays.asList("a.txt", "b.pdf", "news/c.txt", "news/old/d.txt"), walk(walker));
+        assertEquals(0, walker.failures());
+    }
+
+    @Test
+    public void testIncludeAndExcludePatterns() throws IOException {
+        assertEquals(Arrays.asList("a.txt", "news/c.txt"), walk(new CorpusWalker(root, "*.txt", ".*, old")));
+        assertEquals(Arrays.asList("news/c.txt", "news/old/d.txt"), walk(new CorpusWalker(root, "news/**", "")));
+    }
+
+    @Test
+    public void testSymlinkedFile() throws IOException {
+        final Path target = Files.write(outside.getRoot().toPath().resolve("e.txt"), new byte[0]);
+        Files.createSymbolicLink(root.resolve("news/e.txt"), target);
+        CorpusWalker walker = new CorpusWalker(root, "*.txt", "");
+        assertEquals(Arrays.asList("a.txt", "news/c.txt", "news/e.txt", "news/old/d.txt"), walk(walker));
+        assertEquals(0, walker.failures());
+    }
+
+    @Test
+    public void testSymlinkedRoot() throws IOException {
+        final Path link = outside.getRoot().toPath().resolve("corpus");
+        Files.createSymbolicLink(link, root);
+        List<String> files = new ArrayList<>();
+        new CorpusWalker(link, "*.txt", "").walk(f -> files.add(link.relativize(f).toString()));
+        Collections.sort(files);
+        assertEquals(Arrays.asList("a.txt", "news/c.txt", "news/old/d.txt"), files);
+    }
+
+    @Test
+    public void testLinkLoopIsSkipped() throws IOException {
+        Files.createSymbolicLink(root.resolve("news/old/up"), root.resolve("news"));
+        CorpusWalker walker = new CorpusWalker(root, "*.txt", "");
+        assertEquals(Arrays.asList("a.txt", "news/c.txt", "news/old/d.txt"), walk(walker));
+        assertEquals(0, walker.failures());
+    }
+}
@@ -0,0 +1,78 @@
+package ptuxiaki.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static ptuxiaki.utils.SentenceUtils.*;
+
+public class GreekNormalizerTest {
+
+    /**
+     * The words of a sentence as they were computed before {@link GreekNormalizer}.
+     */
+    static String[] legacyWords(String sentence) {
+        return removeWhiteSpaces(replaceSigma(removeTonation(removeNumbers((removeSpecialChars(sentence.toLowerCase())))))).split("\\s+");
+    }
+
+    /**
+     * {@link SentenceUtils#stemSentence(String)} as it was before {@link GreekNormalizer}.
+     */
+    static String legacyStemSentence(String sentence) {
+        StringBuilder stems = new StringBuilder();
+        for (String w : legacyWords(sentence)) {
+            if (!isStopWord(w)) {
+                stems.append(stemWord(w)).append(" ");
+            }
+        }
+        return stems.toString().trim();
+    }
+
+    private static String[] words(GreekNormalizer normalizer, String sentence) {
+        int n = normalizer.normalize(sentence);
+        if (n == 0) {
+            // split of an empty string returns one empty word
+            return new String[] {""};
+        }
+        String[] words = new String[n];
+        for (int i = 0; i < n; i++) {
+            words[i] = normalizer.word(i);
+        }
+        return words;
+    }
+
+    private static List<String> sentences() throws IOException {
+        List<String> sentences = new ArrayList<>(Files.readAllLines(Paths.get(
+                GreekNormalizerTest.class.getClassLoader().getResource("ptuxiaki/extraction/article.txt").getPath()),
+                StandardCharsets.UTF_8));
+        sentences.add("");
+        sentences.add("   \t ");
+        sentences.add("ΆΈΉΊΌΎΏ ΪΫ ΐΰ άέήίόύώ ϊϋ τους ΣΟΦΟΣ σοφός");
+        sentences.add("«Η απεργία», είπε ο κ. Παπαδόπουλος: \"θα συνεχιστεί...\" (2019-2020) @#$%^&*!…");
+        sentences.add("tabs\tnew\nlines\r\nand\u000Bvertical\ffeeds and non breaking");
+        sentences.add("İstanbul Ünïcödé MIXED Ελληνικά 123abc456");
+        return sentences;
+    }
+
+    @Test
+    public void testWordsMatchLegacyChain() throws IOException {
+        GreekNormalizer normalizer = new GreekNormalizer();
+        for (String sentence : sentences()) {
+            assertArrayEquals(sentence, legacyWords(sentence), words(normalizer, sentence));
+        }
+    }
+
+    @Test
+    public void testStemSentenceMatchesLegacy() throws IOException {
+        for (String sentence : sentences()) {
+            assertEquals(sentence, legacyStemSentence(sentence), stemSentence(sentence));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ptuxiaki.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TopKTest {
+
+    /**
+     * The selection the summarizer used to do, a stable sort in descending order
+     * and then the first k, put back in list order.
+     */
+    private static List<double[]> sortAndTake(List<double[]> items, int k) {
+        List<double[]> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingDouble((double[] d) -> d[0]).reversed());
+        List<double[]> taken = new ArrayList<>(sorted.subList(0, k));
+        taken.sort(Comparator.comparingDouble(d -> d[1]));
+        return taken;
+    }
+
+    @Test
+    public void testSameAsFullSortWithTies() {
+        final Random random = new Random(42);
+        for (int n : new int[]{0, 1, 2, 7, 100, 1000}) {
+            List<double[]> items = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                // few distinct weights so that there are many ties, the second value is the position
+                items.add(new double[]{random.nextInt(5), i});
+            }
+            List<double[]> copy = new ArrayList<>(items);
+            for (int k = 0; k <= n; k += Math.max(1, n / 10)) {
+                List<double[]> expected = sortAndTake(items, k);
+                List<double[]> actual = TopK.select(items, k, Comparator.comparingDouble(d -> d[0]));
+                assertEquals(expected.size(), actual.size());
+                for (int i = 0; i < k; i++) {
+                    assertSame(expected.get(i), actual.get(i));
+                }
+            }
+            assertEquals(copy, items);
+        }
+    }
+
+    @Test
+    public void testOutOfRangeK() {
+        List<Integer> items = Arrays.asList(3, 1, 2);
+        assertTrue(TopK.select(items, -1, Comparator.<Integer>naturalOrder()).isEmpty());
+        assertEquals(items, TopK.select(items, 10, Comparator.<Integer>naturalOrder()));
+        assertEquals(Collections.singletonList(3), TopK.select(items, 1, Comparator.<Integer>naturalOrder()));
+    }
+}
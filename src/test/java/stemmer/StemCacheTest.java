@@ -0,0 +1,55 @@
+package stemmer;
+
+import org.apache.lucene.analysis.el.GreekStemmer;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class StemCacheTest {
+    private final GreekStemmer greekStemmer = new GreekStemmer();
+
+    private int stem(StemCache cache, String word) {
+        // pad the buffer like lucene's term buffers are
+        char[] buffer = new char[word.length() + 8];
+        word.getChars(0, word.length(), buffer, 0);
+        return cache.stem(buffer, word.length(), greekStemmer::stem);
+    }
+
+    @Test
+    public void testCachedStemMatchesStemmer() {
+        StemCache cache = new StemCache(64);
+        for (String word : new String[] {"υπολογιστησ", "υπολογισμοσ", "καιροσ", "βολτα", "υπολογιστησ", "καιροσ"}) {
+            char[] chars = word.toCharArray();
+            assertEquals(word, greekStemmer.stem(chars, chars.length), stem(cache, word));
+        }
+        assertEquals(2, cache.hits());
+        assertEquals(4, cache.misses());
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        StemCache cache = new StemCache(16);
+        for (int i = 0; i < 1000; i++) {
+            stem(cache, "λεξη" + i);
+        }
+        assertEquals(1000, cache.misses());
+        assertEquals(16, cache.size());
+    }
+
+    @Test
+    public void testStemInsideABuffer() {
+        StemCache cache = new StemCache(64);
+        final char[] sentence = "ο καιροσ και ο υπολογιστησ".toCharArray();
+        final String before = new String(sentence);
+        char[] word = "υπολογιστησ".toCharArray();
+        final int expected = greekStemmer.stem(word, word.length);
+        assertEquals(expected, cache.stem(sentence, 15, 11, greekStemmer::stem));
+        assertEquals(expected, cache.stem(sentence, 15, 11, greekStemmer::stem));
+        // the same word as a whole buffer hits the entry
+        assertEquals(expected, stem(cache, "υπολογιστησ"));
+        assertEquals(before, new String(sentence));
+        assertEquals(2, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+}